@@ -0,0 +1,74 @@
+package com.github.arteam.simplejsonrpc.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.arteam.simplejsonrpc.client.BinaryTransport;
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.client.builder.BatchRequestBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Processing of batch responses by {@link BatchRequestBuilder}.</p>
+ * <p>The transport returns a prepared response, so the benchmark measures serializing the batch,
+ * parsing the response and matching responses to requests. The time per batch should grow linearly
+ * with the batch size.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchResponseBenchmark {
+
+    @Param({"500", "5000", "50000"})
+    public int size;
+
+    private BatchRequestBuilder<Long, Long> batch;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode responses = mapper.createArrayNode();
+        for (long id = 0; id < size; id++) {
+            ObjectNode response = responses.addObject();
+            response.put("jsonrpc", "2.0");
+            response.put("id", id);
+            response.put("result", id * 2);
+        }
+        byte[] response = mapper.writeValueAsBytes(responses);
+        JsonRpcClient client = new JsonRpcClient(new BinaryTransport() {
+            @NotNull
+            @Override
+            public byte[] exchange(@NotNull byte[] request) {
+                return response;
+            }
+        }, mapper);
+
+        BatchRequestBuilder<?, ?> builder = client.createBatchRequest();
+        for (long id = 0; id < size; id++) {
+            builder.add(id, "double", id);
+        }
+        batch = builder.keysType(Long.class).returnType(Long.class);
+    }
+
+    @Benchmark
+    public Map<Long, Long> execute() {
+        return batch.execute();
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.arteam.simplejsonrpc.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.client.BinaryTransport;
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.client.builder.MutableRequestBuilder;
+import com.github.arteam.simplejsonrpc.client.builder.RequestBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Building and executing a request with many named params by an immutable {@link RequestBuilder}
+ * and by a {@link MutableRequestBuilder}.</p>
+ * <p>The transport returns a prepared response, so the benchmark measures adding params
+ * and serializing the request.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuilderBenchmark {
+
+    @Param({"10", "50"})
+    public int params;
+
+    private JsonRpcClient client;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        byte[] response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":true}".getBytes(StandardCharsets.UTF_8);
+        client = new JsonRpcClient(new BinaryTransport() {
+            @NotNull
+            @Override
+            public byte[] exchange(@NotNull byte[] request) {
+                return response;
+            }
+        }, new ObjectMapper());
+        names = new String[params];
+        for (int i = 0; i < params; i++) {
+            names[i] = "param" + i;
+        }
+    }
+
+    @Benchmark
+    public Boolean immutable() {
+        RequestBuilder<Boolean> request = client.createRequest()
+                .method("update")
+                .id(1)
+                .returnAs(Boolean.class);
+        for (int i = 0; i < names.length; i++) {
+            request = request.param(names[i], i);
+        }
+        return request.execute();
+    }
+
+    @Benchmark
+    public Boolean mutable() {
+        MutableRequestBuilder<Boolean> request = client.createRequest()
+                .method("update")
+                .id(1)
+                .returnAs(Boolean.class)
+                .mutable();
+        for (int i = 0; i < names.length; i++) {
+            request.param(names[i], i);
+        }
+        return request.execute();
+    }
+}
@@ -0,0 +1,349 @@
+package com.github.arteam.simplejsonrpc.client.processor;
+
+import com.github.arteam.simplejsonrpc.client.JsonRpcId;
+import com.github.arteam.simplejsonrpc.client.JsonRpcParams;
+import com.github.arteam.simplejsonrpc.client.ParamsType;
+import com.github.arteam.simplejsonrpc.client.builder.JsonRpcStub;
+import com.github.arteam.simplejsonrpc.client.generator.AtomicLongIdGenerator;
+import com.github.arteam.simplejsonrpc.client.generator.IdGenerator;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcOptional;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * <p>Annotation processor, which generates a client stub for every interface annotated
+ * with {@link JsonRpcService}.</p>
+ * <p>A stub for {@code com.example.TeamService} is {@code com.example.TeamService_JsonRpcStub}. It extends
+ * {@link JsonRpcStub} and keeps names, params and return types of the methods in static fields, so
+ * {@link com.github.arteam.simplejsonrpc.client.JsonRpcClient#onDemand(Class)} returns an instance
+ * of a plain class instead of a {@link java.lang.reflect.Proxy}.</p>
+ * <p>Generic interfaces, generic methods and methods with incomplete annotations are not supported.
+ * A stub isn't generated for such an interface and the client falls back to a proxy.</p>
+ */
+@SupportedAnnotationTypes("com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService")
+public class JsonRpcStubProcessor extends AbstractProcessor {
+
+    private static final String STUB = JsonRpcStub.class.getCanonicalName();
+    private static final String PARAMS_TYPE = ParamsType.class.getCanonicalName();
+    private static final String ID_GENERATOR = IdGenerator.class.getCanonicalName();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonRpcService.class)) {
+            // Classes are server-side services
+            if (element.getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            TypeElement service = (TypeElement) element;
+            try {
+                writeStub(service, generateStub(service));
+            } catch (UnsupportedServiceException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "A stub isn't generated, because " + e.getMessage(), e.element);
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private String generateStub(@NotNull TypeElement service) throws UnsupportedServiceException {
+        if (!service.getTypeParameters().isEmpty()) {
+            throw new UnsupportedServiceException("the interface is generic", service);
+        }
+        for (Element e = service; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedServiceException("the interface is not accessible", service);
+            }
+        }
+
+        String packageName = packageName(service);
+        StringBuilder fields = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        fields.append("    private static final ").append(ID_GENERATOR).append("<?> ID_GENERATOR = new ")
+                .append(idGenerator(service)).append("();\n");
+        int index = 0;
+        for (ExecutableElement method : serviceMethods(service)) {
+            ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils()
+                    .asMemberOf((DeclaredType) service.asType(), method);
+            generateMethod(service, method, methodType, index++, fields, methods);
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        String stubName = stubName(service);
+        source.append("/**\n")
+                .append(" * JSON-RPC client stub for {@link ").append(service.getQualifiedName()).append("}.\n")
+                .append(" * Generated by ").append(getClass().getName()).append(", don't edit.\n")
+                .append(" */\n")
+                .append("@SuppressWarnings(\"unchecked\")\n")
+                .append("public final class ").append(stubName).append(" extends ").append(STUB)
+                .append(" implements ").append(service.getQualifiedName()).append(" {\n\n")
+                .append(fields).append('\n')
+                .append("    public ").append(stubName).append("(")
+                .append("com.github.arteam.simplejsonrpc.client.Transport transport,\n")
+                .append("            com.fasterxml.jackson.databind.ObjectMapper mapper,\n")
+                .append("            ").append(PARAMS_TYPE).append(" userParamsType,\n")
+                .append("            ").append(ID_GENERATOR).append("<?> userIdGenerator,\n")
+                .append("            com.github.arteam.simplejsonrpc.client.builder.MethodCodecs methodCodecs) {\n")
+                .append("        super(transport, mapper, userParamsType,\n")
+                .append("                userIdGenerator != null ? userIdGenerator : ID_GENERATOR, methodCodecs);\n")
+                .append("    }\n")
+                .append(methods)
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Abstract methods of the interface and its superinterfaces
+     */
+    @NotNull
+    private List<ExecutableElement> serviceMethods(@NotNull TypeElement service) {
+        List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+        Set<String> signatures = new HashSet<String>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(service))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            StringBuilder signature = new StringBuilder(method.getSimpleName());
+            for (VariableElement parameter : method.getParameters()) {
+                signature.append(',').append(processingEnv.getTypeUtils().erasure(parameter.asType()));
+            }
+            if (signatures.add(signature.toString())) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private void generateMethod(@NotNull TypeElement service, @NotNull ExecutableElement method,
+                                @NotNull ExecutableType methodType, int index,
+                                @NotNull StringBuilder fields, @NotNull StringBuilder methods)
+            throws UnsupportedServiceException {
+        String methodName = method.getSimpleName().toString();
+        if (!method.getTypeParameters().isEmpty()) {
+            throw new UnsupportedServiceException("method '" + methodName + "' is generic", method);
+        }
+        JsonRpcMethod rpcMethodAnn = method.getAnnotation(JsonRpcMethod.class);
+        if (rpcMethodAnn == null) {
+            throw new UnsupportedServiceException("method '" + methodName + "' is not annotated as @JsonRpcMethod",
+                    method);
+        }
+
+        // Params in the order of arguments
+        List<? extends VariableElement> parameters = method.getParameters();
+        StringBuilder names = new StringBuilder();
+        StringBuilder optional = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        Set<String> uniqueNames = new HashSet<String>();
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            JsonRpcParam rpcParamAnn = parameter.getAnnotation(JsonRpcParam.class);
+            if (rpcParamAnn == null) {
+                throw new UnsupportedServiceException("parameter with index=" + i + " of method '" + methodName +
+                        "' is not annotated with @JsonRpcParam", parameter);
+            }
+            if (!uniqueNames.add(rpcParamAnn.value())) {
+                throw new UnsupportedServiceException("two parameters of method '" + methodName + "' have the " +
+                        "same name '" + rpcParamAnn.value() + "'", parameter);
+            }
+            String separator = i > 0 ? ", " : "";
+            names.append(separator).append(processingEnv.getElementUtils().getConstantExpression(rpcParamAnn.value()));
+            optional.append(separator).append(parameter.getAnnotation(JsonRpcOptional.class) != null);
+            String typeName = typeName(methodType.getParameterTypes().get(i), method);
+            if (method.isVarArgs() && i == parameters.size() - 1) {
+                typeName = typeName.substring(0, typeName.length() - 2) + "...";
+            }
+            arguments.append(separator).append(typeName).append(" arg").append(i);
+            values.append(separator).append("arg").append(i);
+        }
+
+        String name = !rpcMethodAnn.value().isEmpty() ? rpcMethodAnn.value() : methodName;
+        TypeMirror returnType = methodType.getReturnType();
+        String returnTypeName = typeName(returnType, method);
+        fields.append("    private static final com.github.arteam.simplejsonrpc.client.metadata.MethodMetadata METHOD_")
+                .append(index).append(" = ").append(STUB).append(".method(\n")
+                .append("            ").append(processingEnv.getElementUtils().getConstantExpression(name))
+                .append(", ").append(PARAMS_TYPE).append('.').append(paramsType(service, method)).append(",\n")
+                .append("            new String[]{").append(names).append("}, new boolean[]{").append(optional)
+                .append("});\n")
+                .append("    private static final java.lang.reflect.Type RETURN_TYPE_").append(index).append(" = ");
+        if (isGeneric(returnType)) {
+            fields.append("new com.fasterxml.jackson.core.type.TypeReference<").append(returnTypeName)
+                    .append(">() {\n    }.getType();\n");
+        } else {
+            fields.append(returnTypeName).append(".class;\n");
+        }
+
+        String call = "invoke(METHOD_" + index + ", RETURN_TYPE_" + index + ", new Object[]{" + values + "});";
+        methods.append('\n')
+                .append("    @Override\n")
+                .append("    public ").append(returnTypeName).append(' ').append(methodName)
+                .append('(').append(arguments).append(") {\n");
+        if (returnType.getKind() == TypeKind.VOID) {
+            methods.append("        ").append(call).append('\n');
+        } else if (returnType.getKind().isPrimitive()) {
+            TypeElement boxed = processingEnv.getTypeUtils().boxedClass((PrimitiveType) returnType);
+            methods.append("        return (").append(boxed.getQualifiedName()).append(") ").append(call).append('\n');
+        } else {
+            methods.append("        return (").append(returnTypeName).append(") ").append(call).append('\n');
+        }
+        methods.append("    }\n");
+    }
+
+    private void writeStub(@NotNull TypeElement service, @NotNull String source) {
+        String packageName = packageName(service);
+        String stubName = packageName.isEmpty() ? stubName(service) : packageName + '.' + stubName(service);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(stubName, service).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable write a stub " + stubName + ": " + e, service);
+        }
+    }
+
+    /**
+     * Simple name of a stub, which is looked up by {@link JsonRpcStub#newStub}
+     */
+    @NotNull
+    private String stubName(@NotNull TypeElement service) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(service).toString();
+        String packageName = packageName(service);
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return simpleName.replace('$', '_') + JsonRpcStub.SUFFIX;
+    }
+
+    @NotNull
+    private String packageName(@NotNull TypeElement service) {
+        return processingEnv.getElementUtils().getPackageOf(service).getQualifiedName().toString();
+    }
+
+    /**
+     * Get style of params of a method. Like in a proxy, a method level setting overrides
+     * a class level one and MAP is a fallback choice as default.
+     */
+    @NotNull
+    private static ParamsType paramsType(@NotNull TypeElement service, @NotNull ExecutableElement method) {
+        JsonRpcParams rpcParamsAnn = method.getAnnotation(JsonRpcParams.class);
+        if (rpcParamsAnn == null) {
+            rpcParamsAnn = service.getAnnotation(JsonRpcParams.class);
+        }
+        return rpcParamsAnn != null ? rpcParamsAnn.value() : ParamsType.MAP;
+    }
+
+    @NotNull
+    private String idGenerator(@NotNull TypeElement service) throws UnsupportedServiceException {
+        JsonRpcId jsonRpcIdAnn = service.getAnnotation(JsonRpcId.class);
+        if (jsonRpcIdAnn == null) {
+            return AtomicLongIdGenerator.class.getCanonicalName();
+        }
+        try {
+            return jsonRpcIdAnn.value().getCanonicalName();
+        } catch (MirroredTypeException e) {
+            // Classes of annotation values are not loaded during compilation
+            return typeName(processingEnv.getTypeUtils().erasure(e.getTypeMirror()), service);
+        }
+    }
+
+    /**
+     * Source name of a type without type annotations
+     */
+    @NotNull
+    private String typeName(@NotNull TypeMirror type, @NotNull Element element) throws UnsupportedServiceException {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+            case VOID:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType(), element) + "[]";
+            case DECLARED:
+                DeclaredType declaredType = (DeclaredType) type;
+                StringBuilder name = new StringBuilder(((TypeElement) declaredType.asElement()).getQualifiedName());
+                List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+                if (!typeArguments.isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < typeArguments.size(); i++) {
+                        name.append(i > 0 ? ", " : "").append(typeName(typeArguments.get(i), element));
+                    }
+                    name.append('>');
+                }
+                return name.toString();
+            case WILDCARD:
+                WildcardType wildcardType = (WildcardType) type;
+                if (wildcardType.getExtendsBound() != null) {
+                    return "? extends " + typeName(wildcardType.getExtendsBound(), element);
+                } else if (wildcardType.getSuperBound() != null) {
+                    return "? super " + typeName(wildcardType.getSuperBound(), element);
+                }
+                return "?";
+            default:
+                throw new UnsupportedServiceException("type '" + type + "' is not supported", element);
+        }
+    }
+
+    private static boolean isGeneric(@NotNull TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isGeneric(((ArrayType) type).getComponentType());
+        }
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * A service, for which a stub can't be generated
+     */
+    private static class UnsupportedServiceException extends Exception {
+
+        @Nullable
+        private final Element element;
+
+        UnsupportedServiceException(@NotNull String message, @Nullable Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
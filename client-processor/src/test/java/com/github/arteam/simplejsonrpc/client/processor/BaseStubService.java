@@ -0,0 +1,13 @@
+package com.github.arteam.simplejsonrpc.client.processor;
+
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+
+/**
+ * Superinterface, which methods are implemented by a stub of a subinterface
+ */
+public interface BaseStubService {
+
+    @JsonRpcMethod
+    String ping(@JsonRpcParam("message") String message);
+}
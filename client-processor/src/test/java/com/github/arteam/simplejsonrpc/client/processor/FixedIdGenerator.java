@@ -0,0 +1,11 @@
+package com.github.arteam.simplejsonrpc.client.processor;
+
+import com.github.arteam.simplejsonrpc.client.generator.IdGenerator;
+
+public class FixedIdGenerator implements IdGenerator<Integer> {
+
+    @Override
+    public Integer generate() {
+        return 7;
+    }
+}
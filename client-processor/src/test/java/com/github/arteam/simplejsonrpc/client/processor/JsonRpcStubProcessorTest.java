@@ -0,0 +1,123 @@
+package com.github.arteam.simplejsonrpc.client.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.client.ParamsType;
+import com.github.arteam.simplejsonrpc.client.builder.JsonRpcStub;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests stubs generated by {@link JsonRpcStubProcessor}
+ */
+public class JsonRpcStubProcessorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<JsonNode> requests = new ArrayList<>();
+
+    private JsonRpcClient client(String result) {
+        return new JsonRpcClient(request -> {
+            requests.add(mapper.readTree(request));
+            return "{\"jsonrpc\":\"2.0\",\"id\":7,\"result\":" + result + "}";
+        }, mapper);
+    }
+
+    private JsonNode lastRequest() {
+        return requests.get(requests.size() - 1);
+    }
+
+    @Test
+    public void testStubIsCreated() {
+        StubService service = client("null").onDemand(StubService.class);
+        assertThat(service).isInstanceOf(JsonRpcStub.class);
+        assertThat(service.getClass().getName())
+                .isEqualTo("com.github.arteam.simplejsonrpc.client.processor.StubService_JsonRpcStub");
+        assertThat(Proxy.isProxyClass(service.getClass())).isFalse();
+    }
+
+    @Test
+    public void testMapParams() throws Exception {
+        StubService service = client("[\"Nelson\",\"Tyson\"]").onDemand(StubService.class);
+        assertThat(service.findByTeam("Steelers", null)).containsExactly("Nelson", "Tyson");
+        assertThat(lastRequest()).isEqualTo(mapper.readTree("{\"jsonrpc\":\"2.0\",\"method\":\"find_by_team\"," +
+                "\"id\":7,\"params\":{\"team\":\"Steelers\"}}"));
+
+        service.findByTeam("Steelers", 2);
+        assertThat(lastRequest().get("params")).isEqualTo(mapper.readTree("{\"team\":\"Steelers\",\"limit\":2}"));
+    }
+
+    @Test
+    public void testArrayParamsAndPrimitives() throws Exception {
+        StubService service = client("5").onDemand(StubService.class);
+        assertThat(service.sum(2L, 3)).isEqualTo(5L);
+        assertThat(lastRequest()).isEqualTo(mapper.readTree("{\"jsonrpc\":\"2.0\",\"method\":\"sum\"," +
+                "\"id\":7,\"params\":[2,3]}"));
+    }
+
+    @Test
+    public void testUserParamsType() throws Exception {
+        StubService service = client("5").onDemand(StubService.class, ParamsType.MAP);
+        service.sum(2L, 3);
+        assertThat(lastRequest().get("params")).isEqualTo(mapper.readTree("{\"a\":2,\"b\":3}"));
+    }
+
+    @Test
+    public void testGenericResult() {
+        StubService service = client("{\"Nelson\":[1,2]}").onDemand(StubService.class);
+        assertThat(service.scores("Nelson").get("Nelson")).containsExactly(1, 2);
+        assertThat(lastRequest().get("params").get("players").get(0).asText()).isEqualTo("Nelson");
+    }
+
+    @Test
+    public void testFutureResult() throws Exception {
+        StubService service = client("true").onDemand(StubService.class);
+        assertThat(service.login("fox").get()).isTrue();
+    }
+
+    @Test
+    public void testVoidMethodAndInheritedMethod() {
+        StubService service = client("\"pong\"").onDemand(StubService.class);
+        service.logout();
+        assertThat(lastRequest().get("method").asText()).isEqualTo("logout");
+        assertThat(lastRequest().get("params").size()).isEqualTo(0);
+
+        assertThat(service.ping("ping")).isEqualTo("pong");
+    }
+
+    @Test
+    public void testUserIdGenerator() {
+        StubService service = client("\"pong\"").onDemand(StubService.class, () -> "custom");
+        service.ping("ping");
+        assertThat(lastRequest().get("id").asText()).isEqualTo("custom");
+    }
+
+    @Test
+    public void testError() {
+        StubService service = new JsonRpcClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":7," +
+                "\"error\":{\"code\":-32601,\"message\":\"Method not found\"}}").onDemand(StubService.class);
+        assertThatThrownBy(() -> service.ping("ping"))
+                .isInstanceOf(JsonRpcException.class)
+                .hasMessageContaining("Method not found");
+    }
+
+    @Test
+    public void testNestedInterface() {
+        StubService.Nested service = client("3").onDemand(StubService.Nested.class);
+        assertThat(service.getClass().getSimpleName()).isEqualTo("StubService_Nested_JsonRpcStub");
+        assertThat(service.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testProxyForGenericInterface() {
+        StubService.Generic<?> service = client("3").onDemand(StubService.Generic.class);
+        assertThat(Proxy.isProxyClass(service.getClass())).isTrue();
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.arteam.simplejsonrpc.client.processor;
+
+import com.github.arteam.simplejsonrpc.client.JsonRpcId;
+import com.github.arteam.simplejsonrpc.client.JsonRpcParams;
+import com.github.arteam.simplejsonrpc.client.ParamsType;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcOptional;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service, for which a stub is generated during compilation of tests
+ */
+@JsonRpcService
+@JsonRpcId(FixedIdGenerator.class)
+public interface StubService extends BaseStubService {
+
+    @JsonRpcMethod("find_by_team")
+    List<String> findByTeam(@JsonRpcParam("team") @NotNull String team,
+                            @JsonRpcParam("limit") @JsonRpcOptional @Nullable Integer limit);
+
+    @JsonRpcMethod
+    @JsonRpcParams(ParamsType.ARRAY)
+    long sum(@JsonRpcParam("a") long a, @JsonRpcParam("b") int b);
+
+    @JsonRpcMethod
+    Map<String, int[]> scores(@JsonRpcParam("players") String... players);
+
+    @JsonRpcMethod
+    CompletableFuture<Boolean> login(@JsonRpcParam("login") String login);
+
+    @JsonRpcMethod
+    void logout();
+
+    @JsonRpcService
+    interface Nested {
+
+        @JsonRpcMethod
+        int count();
+    }
+
+    /**
+     * A proxy is created for a generic service
+     */
+    @JsonRpcService
+    interface Generic<T> {
+
+        @JsonRpcMethod
+        T get();
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * <p>Transport which passes requests without blocking the calling thread.</p>
+ * <p>Requests built with {@code executeAsync} are passed to {@link #passAsync(String)},
+ * so a thread could have many requests in flight. Blocking calls are passed to
+ * {@link #pass(String)}, which waits for the future by default.</p>
+ */
+public interface AsyncTransport extends Transport {
+
+    /**
+     * Passes a JSON-RPC request in a text form to a backend and
+     * returns a future JSON-RPC response in a text form as well
+     *
+     * @param request JSON-RPC request as a string
+     * @return future JSON-RPC response as a string, which fails with an {@link IOException}
+     * if an I/O error happens during transfer
+     */
+    @NotNull
+    CompletableFuture<String> passAsync(@NotNull String request);
+
+    @NotNull
+    @Override
+    default String pass(@NotNull String request) throws IOException {
+        try {
+            return passAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Transport which passes requests and responses as JSON in UTF-8.</p>
+ * <p>Requests are serialized straight to bytes and responses are parsed straight from bytes,
+ * so the client doesn't create intermediate strings. A text {@link Transport} is adapted
+ * with {@link #of(Transport)}, which converts requests and responses as before.</p>
+ */
+public interface BinaryTransport extends Transport {
+
+    /**
+     * Passes a JSON-RPC request in UTF-8 to a backend and returns a JSON-RPC response in UTF-8
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return JSON-RPC response in UTF-8, empty if the request doesn't have a response
+     * @throws IOException if an I/O error happens during transfer
+     */
+    @NotNull
+    byte[] exchange(@NotNull byte[] request) throws IOException;
+
+    /**
+     * Passes a JSON-RPC request in UTF-8 to a backend without blocking the calling thread, if the
+     * transport supports it. By default, the request is passed in the calling thread.
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return future JSON-RPC response in UTF-8, which fails with an {@link IOException}
+     * if an I/O error happens during transfer
+     */
+    @NotNull
+    default CompletableFuture<byte[]> exchangeAsync(@NotNull byte[] request) {
+        CompletableFuture<byte[]> response = new CompletableFuture<byte[]>();
+        try {
+            response.complete(exchange(request));
+        } catch (IOException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    @NotNull
+    @Override
+    default String pass(@NotNull String request) throws IOException {
+        return new String(exchange(request.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adapts a transport to pass requests in UTF-8
+     *
+     * @param transport text or binary transport
+     * @return the transport itself, if it's binary, or an adapter which converts
+     * requests and responses to strings
+     */
+    @NotNull
+    static BinaryTransport of(@NotNull Transport transport) {
+        return transport instanceof BinaryTransport ? (BinaryTransport) transport : new TextTransportAdapter(transport);
+    }
+}
@@ -0,0 +1,448 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Transport which merges concurrent requests into JSON-RPC batches.</p>
+ * <p>A request is held for a short window (1 ms by default). Requests passed during the window
+ * are sent to the underlying transport as a single batch, as soon as the window ends or the batch
+ * reaches the max size, and the responses are matched back to the callers by ids. A lone request
+ * is sent as is. So a service which issues many small requests at once makes a single round trip,
+ * while the callers still use requests, notifications and proxies as usual.</p>
+ * <p>Requests in a batch should have different ids: a request with the same id as a pending one
+ * starts a new batch. Proxies of each service interface use their own sequential
+ * {@link com.github.arteam.simplejsonrpc.client.generator.IdGenerator} by default, so proxies of different
+ * interfaces may produce the same ids and split batches. They should share a generator to be merged well.
+ * Batches are sent from a scheduler thread, so the underlying transport should preferably be
+ * an {@link AsyncTransport} or a {@link BinaryTransport} with a non-blocking {@code exchangeAsync}.</p>
+ */
+public class CoalescingTransport implements AsyncTransport, BinaryTransport, Closeable {
+
+    private static final byte[] EMPTY_RESPONSE = new byte[0];
+
+    private static final String ID = "id";
+
+    @NotNull
+    private final BinaryTransport transport;
+
+    @NotNull
+    private final ObjectMapper mapper;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    @NotNull
+    private final ScheduledExecutorService scheduler;
+
+    private final boolean ownScheduler;
+
+    @Nullable
+    private Batch batch;
+
+    private boolean closed;
+
+    /**
+     * Creates a transport with a 1 ms window and batches of up to 100 requests
+     *
+     * @param transport underlying transport
+     */
+    public CoalescingTransport(@NotNull Transport transport) {
+        this(builder(transport));
+    }
+
+    private CoalescingTransport(@NotNull Builder builder) {
+        this.transport = BinaryTransport.of(builder.transport);
+        this.mapper = builder.mapper;
+        this.windowNanos = builder.window.toNanos();
+        this.maxBatchSize = builder.maxBatchSize;
+        this.ownScheduler = builder.scheduler == null;
+        this.scheduler = builder.scheduler != null ? builder.scheduler :
+                Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "json-rpc-coalescer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Creates a builder of a transport
+     *
+     * @param transport underlying transport
+     * @return new builder
+     */
+    @NotNull
+    public static Builder builder(@NotNull Transport transport) {
+        return new Builder(transport);
+    }
+
+    @NotNull
+    @Override
+    public String pass(@NotNull String request) throws IOException {
+        return new String(exchange(request.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    @Override
+    public CompletableFuture<String> passAsync(@NotNull String request) {
+        return exchangeAsync(request.getBytes(StandardCharsets.UTF_8))
+                .thenApply(response -> new String(response, StandardCharsets.UTF_8));
+    }
+
+    @NotNull
+    @Override
+    public byte[] exchange(@NotNull byte[] request) throws IOException {
+        try {
+            return exchangeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Adds a request to the current batch. Batches and malformed requests are passed to
+     * the underlying transport as they are.
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return future JSON-RPC response in UTF-8, empty for a notification
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<byte[]> exchangeAsync(@NotNull byte[] request) {
+        JsonNode id;
+        try {
+            id = requestId(request);
+        } catch (IOException e) {
+            id = null;
+        }
+        if (id == null) {
+            return transport.exchangeAsync(request);
+        }
+
+        CompletableFuture<byte[]> response = new CompletableFuture<byte[]>();
+        List<Batch> ready = new ArrayList<Batch>(2);
+        synchronized (this) {
+            if (closed) {
+                response.completeExceptionally(new IOException("Transport is closed"));
+                return response;
+            }
+            if (batch != null && batch.contains(id)) {
+                ready.add(takeBatch());
+            }
+            if (batch == null) {
+                Batch newBatch = new Batch();
+                newBatch.timer = scheduler.schedule(() -> flush(newBatch), windowNanos, TimeUnit.NANOSECONDS);
+                batch = newBatch;
+            }
+            batch.add(id, request, response);
+            if (batch.size() >= maxBatchSize) {
+                ready.add(takeBatch());
+            }
+        }
+        for (Batch readyBatch : ready) {
+            try {
+                scheduler.execute(() -> send(readyBatch));
+            } catch (RejectedExecutionException e) {
+                // The scheduler has been stopped by a concurrent close, so don't leave the batch behind
+                send(readyBatch);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Sends the pending batch and stops the scheduler, if it's owned by the transport
+     */
+    @Override
+    public void close() {
+        Batch lastBatch;
+        synchronized (this) {
+            closed = true;
+            lastBatch = batch != null ? takeBatch() : null;
+        }
+        if (lastBatch != null) {
+            send(lastBatch);
+        }
+        if (ownScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    @NotNull
+    private Batch takeBatch() {
+        Batch currentBatch = batch;
+        batch = null;
+        currentBatch.timer.cancel(false);
+        return currentBatch;
+    }
+
+    private void flush(@NotNull Batch expiredBatch) {
+        synchronized (this) {
+            if (batch != expiredBatch) {
+                // Already sent because it's full
+                return;
+            }
+            batch = null;
+        }
+        send(expiredBatch);
+    }
+
+    private void send(@NotNull Batch sentBatch) {
+        CompletableFuture<byte[]> batchResponse;
+        try {
+            byte[] request = sentBatch.size() == 1 ? sentBatch.requests.get(0) : sentBatch.toJson();
+            batchResponse = transport.exchangeAsync(request);
+        } catch (RuntimeException e) {
+            sentBatch.fail(e);
+            return;
+        }
+        batchResponse.whenComplete((response, e) -> {
+            if (e != null) {
+                sentBatch.fail(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else if (sentBatch.size() == 1) {
+                sentBatch.completeSingle(response);
+            } else {
+                sentBatch.complete(response);
+            }
+        });
+    }
+
+    /**
+     * Reads the id of a single request without parsing the params to a tree
+     *
+     * @return id, a missing node for a notification or {@code null} if it's not a single request
+     */
+    @Nullable
+    private JsonNode requestId(@NotNull byte[] request) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(request)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String fieldName;
+            while ((fieldName = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                if (fieldName.equals(ID)) {
+                    return mapper.readTree(parser);
+                }
+                parser.skipChildren();
+            }
+            return MissingNode.getInstance();
+        }
+    }
+
+    /**
+     * Requests which are sent together
+     */
+    private class Batch {
+
+        private final List<byte[]> requests = new ArrayList<byte[]>();
+
+        /**
+         * Responses by ids in the JSON form, so a string id doesn't match a number
+         */
+        private final Map<String, CompletableFuture<byte[]>> responses =
+                new LinkedHashMap<String, CompletableFuture<byte[]>>();
+
+        private final List<CompletableFuture<byte[]>> notifications = new ArrayList<CompletableFuture<byte[]>>();
+
+        private ScheduledFuture<?> timer;
+
+        boolean contains(@NotNull JsonNode id) {
+            return responses.containsKey(id.toString());
+        }
+
+        void add(@NotNull JsonNode id, @NotNull byte[] request, @NotNull CompletableFuture<byte[]> response) {
+            requests.add(request);
+            if (id.isMissingNode()) {
+                notifications.add(response);
+            } else {
+                responses.put(id.toString(), response);
+            }
+        }
+
+        int size() {
+            return requests.size();
+        }
+
+        @NotNull
+        byte[] toJson() {
+            int length = requests.size() + 1;
+            for (byte[] request : requests) {
+                length += request.length;
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream(length);
+            output.write('[');
+            for (int i = 0; i < requests.size(); i++) {
+                if (i > 0) {
+                    output.write(',');
+                }
+                byte[] request = requests.get(i);
+                output.write(request, 0, request.length);
+            }
+            output.write(']');
+            return output.toByteArray();
+        }
+
+        void completeSingle(@NotNull byte[] response) {
+            for (CompletableFuture<byte[]> notification : notifications) {
+                notification.complete(response);
+            }
+            for (CompletableFuture<byte[]> singleResponse : responses.values()) {
+                singleResponse.complete(response);
+            }
+        }
+
+        void complete(@NotNull byte[] response) {
+            for (CompletableFuture<byte[]> notification : notifications) {
+                notification.complete(EMPTY_RESPONSE);
+            }
+            if (responses.isEmpty()) {
+                return;
+            }
+            try {
+                JsonNode responseNodes = mapper.readTree(response);
+                if (!responseNodes.isArray()) {
+                    throw new IOException("Expected a batch response, but was: " +
+                            new String(response, StandardCharsets.UTF_8));
+                }
+                for (JsonNode responseNode : responseNodes) {
+                    JsonNode id = responseNode.get(ID);
+                    CompletableFuture<byte[]> singleResponse = id != null ? responses.remove(id.toString()) : null;
+                    if (singleResponse != null) {
+                        singleResponse.complete(mapper.writeValueAsBytes(responseNode));
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            for (Map.Entry<String, CompletableFuture<byte[]>> e : responses.entrySet()) {
+                e.getValue().completeExceptionally(new IOException("No response for a request with id=" + e.getKey()));
+            }
+        }
+
+        void fail(@NotNull Throwable e) {
+            for (CompletableFuture<byte[]> notification : notifications) {
+                notification.completeExceptionally(e);
+            }
+            for (CompletableFuture<byte[]> singleResponse : responses.values()) {
+                singleResponse.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Builder of a transport
+     */
+    public static class Builder {
+
+        @NotNull
+        private final Transport transport;
+
+        @NotNull
+        private ObjectMapper mapper = new ObjectMapper();
+
+        @NotNull
+        private Duration window = Duration.ofMillis(1);
+
+        private int maxBatchSize = 100;
+
+        @Nullable
+        private ScheduledExecutorService scheduler;
+
+        private Builder(@NotNull Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Sets the max time a request waits for other requests, 1 ms by default
+         *
+         * @param window window of a batch
+         * @return the current builder
+         */
+        @NotNull
+        public Builder window(@NotNull Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Sets the max number of requests in a batch, 100 by default
+         *
+         * @param maxBatchSize max size of a batch
+         * @return the current builder
+         */
+        @NotNull
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Batch size should be positive, but was " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets a mapper which reads ids of requests and splits batch responses
+         *
+         * @param mapper JSON mapper
+         * @return the current builder
+         */
+        @NotNull
+        public Builder mapper(@NotNull ObjectMapper mapper) {
+            this.mapper = mapper;
+            return this;
+        }
+
+        /**
+         * Sets a scheduler which sends batches. By default, the transport starts a daemon
+         * thread, which is stopped on {@link CoalescingTransport#close()}.
+         *
+         * @param scheduler scheduler of batches
+         * @return the current builder
+         */
+        @NotNull
+        public Builder scheduler(@NotNull ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * @return new transport
+         */
+        @NotNull
+        public CoalescingTransport build() {
+            return new CoalescingTransport(this);
+        }
+    }
+}
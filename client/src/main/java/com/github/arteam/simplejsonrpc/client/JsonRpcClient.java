@@ -2,11 +2,15 @@ package com.github.arteam.simplejsonrpc.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.arteam.simplejsonrpc.client.builder.BatchRequestBuilder;
+import com.github.arteam.simplejsonrpc.client.builder.BatchScope;
+import com.github.arteam.simplejsonrpc.client.builder.JsonRpcStub;
+import com.github.arteam.simplejsonrpc.client.builder.MethodCodecs;
 import com.github.arteam.simplejsonrpc.client.builder.NotificationRequestBuilder;
 import com.github.arteam.simplejsonrpc.client.builder.ObjectApiBuilder;
 import com.github.arteam.simplejsonrpc.client.builder.RequestBuilder;
 import com.github.arteam.simplejsonrpc.client.generator.IdGenerator;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Proxy;
 
@@ -30,6 +34,12 @@ public class JsonRpcClient {
     @NotNull
     private ObjectMapper mapper;
 
+    /**
+     * Return types and result readers of service methods, which are shared by proxies and stubs of the client
+     */
+    @NotNull
+    private MethodCodecs methodCodecs;
+
     /**
      * Constructs a new JSON-RPC client with a specified transport
      *
@@ -48,6 +58,7 @@ public class JsonRpcClient {
     public JsonRpcClient(@NotNull Transport transport, @NotNull ObjectMapper mapper) {
         this.transport = transport;
         this.mapper = mapper;
+        this.methodCodecs = new MethodCodecs(mapper);
     }
 
     /**
@@ -81,17 +92,27 @@ public class JsonRpcClient {
     }
 
     /**
-     * Creates a new proxy for accessing a remote JSON-RPC service through an interface
+     * Creates a scope, where calls of service proxies are recorded and sent as a single batch request
+     *
+     * @return batch scope
+     */
+    @NotNull
+    public BatchScope createBatchScope() {
+        return new BatchScope(transport, mapper, methodCodecs);
+    }
+
+    /**
+     * Creates a new proxy for accessing a remote JSON-RPC service through an interface.
+     * If a stub is generated for the interface by {@code simple-json-rpc-client-processor},
+     * the stub is created instead of a proxy.
      *
      * @param clazz interface metadata
      * @param <T>   interface type
-     * @return a new proxy
+     * @return a new stub or proxy
      */
-    @SuppressWarnings("unchecked")
     @NotNull
     public <T> T onDemand(@NotNull Class<T> clazz) {
-        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{clazz},
-                new ObjectApiBuilder(clazz, transport, mapper, null, null));
+        return newService(clazz, null, null);
     }
 
     /**
@@ -101,13 +122,11 @@ public class JsonRpcClient {
      * @param clazz       interface metadata
      * @param idGenerator custom id generator
      * @param <T>         interface type
-     * @return a new proxy
+     * @return a new stub or proxy
      */
-    @SuppressWarnings("unchecked")
     @NotNull
     public <T> T onDemand(@NotNull Class<T> clazz, @NotNull IdGenerator<?> idGenerator) {
-        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{clazz},
-                new ObjectApiBuilder(clazz, transport, mapper, null, idGenerator));
+        return newService(clazz, null, idGenerator);
     }
 
     /**
@@ -118,13 +137,11 @@ public class JsonRpcClient {
      * @param clazz      interface metadata
      * @param paramsType custom type of request params
      * @param <T>        interface type
-     * @return a new proxy
+     * @return a new stub or proxy
      */
-    @SuppressWarnings("unchecked")
     @NotNull
     public <T> T onDemand(@NotNull Class<T> clazz, @NotNull ParamsType paramsType) {
-        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{clazz},
-                new ObjectApiBuilder(clazz, transport, mapper, paramsType, null));
+        return newService(clazz, paramsType, null);
     }
 
     /**
@@ -137,13 +154,23 @@ public class JsonRpcClient {
      * @param idGenerator custom id generator
      * @param paramsType  custom type of request params
      * @param <T>         interface type
-     * @return a new proxy
+     * @return a new stub or proxy
      */
-    @SuppressWarnings("unchecked")
     @NotNull
     public <T> T onDemand(Class<T> clazz, @NotNull ParamsType paramsType, @NotNull IdGenerator<?> idGenerator) {
+        return newService(clazz, paramsType, idGenerator);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private <T> T newService(@NotNull Class<T> clazz, @Nullable ParamsType paramsType,
+                             @Nullable IdGenerator<?> idGenerator) {
+        T stub = JsonRpcStub.newStub(clazz, transport, mapper, paramsType, idGenerator, methodCodecs);
+        if (stub != null) {
+            return stub;
+        }
         return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{clazz},
-                new ObjectApiBuilder(clazz, transport, mapper, paramsType, idGenerator));
+                new ObjectApiBuilder(clazz, transport, mapper, paramsType, idGenerator, methodCodecs));
     }
 
 }
@@ -0,0 +1,43 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Binary view of a text transport. Requests are decoded to strings before they are passed
+ * and responses are encoded back to UTF-8, so the transport works as it did with strings.
+ */
+class TextTransportAdapter implements BinaryTransport {
+
+    @NotNull
+    private final Transport transport;
+
+    TextTransportAdapter(@NotNull Transport transport) {
+        this.transport = transport;
+    }
+
+    @NotNull
+    @Override
+    public byte[] exchange(@NotNull byte[] request) throws IOException {
+        return transport.pass(new String(request, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    @Override
+    public CompletableFuture<byte[]> exchangeAsync(@NotNull byte[] request) {
+        if (!(transport instanceof AsyncTransport)) {
+            return BinaryTransport.super.exchangeAsync(request);
+        }
+        return ((AsyncTransport) transport).passAsync(new String(request, StandardCharsets.UTF_8))
+                .thenApply(response -> response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NotNull
+    @Override
+    public String pass(@NotNull String request) throws IOException {
+        return transport.pass(request);
+    }
+}
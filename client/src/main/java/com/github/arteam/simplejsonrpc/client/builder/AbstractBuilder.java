@@ -1,16 +1,41 @@
 package com.github.arteam.simplejsonrpc.client.builder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.ValueNode;
+import com.fasterxml.jackson.databind.ser.std.ReferenceTypeSerializer;
+import com.github.arteam.simplejsonrpc.client.AsyncTransport;
+import com.github.arteam.simplejsonrpc.client.BinaryTransport;
+import com.github.arteam.simplejsonrpc.client.ParamsType;
 import com.github.arteam.simplejsonrpc.client.Transport;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import com.github.arteam.simplejsonrpc.client.metadata.MethodMetadata;
+import com.github.arteam.simplejsonrpc.client.metadata.ParameterMetadata;
+import com.github.arteam.simplejsonrpc.core.domain.ErrorMessage;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Date: 10/12/14
@@ -98,4 +123,280 @@ public class AbstractBuilder {
         }
         return requestNode;
     }
+
+    /**
+     * Writes a JSON-RPC request straight to JSON in UTF-8. Unlike {@link #request}, params are
+     * serialized by the mapper without converting them to a tree.
+     *
+     * @param id     request id
+     * @param method request method
+     * @param params request params as a list, an array, a map or a bean
+     * @return request in UTF-8
+     * @throws IllegalArgumentException if the request can't be serialized
+     */
+    @NotNull
+    protected byte[] writeRequest(@NotNull ValueNode id, @NotNull String method, @NotNull Object params) {
+        if (method.isEmpty()) {
+            throw new IllegalArgumentException("Method is not set");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField(JSONRPC, VERSION_2_0);
+            generator.writeStringField(METHOD, method);
+            generator.writeFieldName(PARAMS);
+            mapper.writeValue(generator, params);
+            if (!id.isNull()) {
+                generator.writeFieldName(ID);
+                generator.writeTree(id);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable convert request '" + method + "' to JSON", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Get request params of a service method as a map or an array, which are serialized straight to the request
+     *
+     * @param method     metadata of the method
+     * @param args       actual arguments
+     * @param paramsType type of request params
+     * @return params as a map or a list
+     */
+    @NotNull
+    protected Object getParams(@NotNull MethodMetadata method, @NotNull Object[] args,
+                             @NotNull ParamsType paramsType) {
+        Map<String, Object> paramsAsMap = paramsType == ParamsType.MAP ?
+                new LinkedHashMap<String, Object>(method.getParams().size() * 4 / 3 + 1) : null;
+        List<Object> paramsAsArray = paramsType == ParamsType.ARRAY ?
+                new ArrayList<Object>(method.getParams().size()) : null;
+        for (Map.Entry<String, ParameterMetadata> param : method.getParams().entrySet()) {
+            String paramName = param.getKey();
+            ParameterMetadata parameterMetadata = param.getValue();
+            Object arg = args[parameterMetadata.getIndex()];
+            if (isNull(arg)) {
+                if (parameterMetadata.isOptional()) {
+                    if (paramsAsArray != null) {
+                        paramsAsArray.add(null);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Parameter '" + paramName +
+                            "' of method '" + method.getName() + "' is mandatory and can't be null");
+                }
+            } else if (paramsAsMap != null) {
+                paramsAsMap.put(paramName, arg);
+            } else if (paramsAsArray != null) {
+                paramsAsArray.add(arg);
+            }
+        }
+        return paramsAsMap != null ? paramsAsMap : paramsAsArray != null ? paramsAsArray : Collections.emptyList();
+    }
+
+    /**
+     * Check if an argument is serialized as null, e.g. it's an absent {@link java.util.Optional}
+     */
+    protected boolean isNull(@Nullable Object arg) {
+        if (arg == null || arg instanceof JsonNode && ((JsonNode) arg).isNull()) {
+            return true;
+        }
+        SerializerProvider provider = mapper.getSerializerProviderInstance();
+        try {
+            JsonSerializer<Object> serializer = provider.findValueSerializer(arg.getClass());
+            return serializer instanceof ReferenceTypeSerializer && serializer.isEmpty(provider, arg);
+        } catch (JsonMappingException e) {
+            throw new IllegalArgumentException("Unable convert " + arg + " to JSON", e);
+        }
+    }
+
+    /**
+     * Joins requests in UTF-8 to a batch request without parsing them
+     *
+     * @param requests requests in UTF-8
+     * @return batch request in UTF-8
+     */
+    @NotNull
+    protected static byte[] batch(@NotNull List<byte[]> requests) {
+        int size = Math.max(requests.size() + 1, 2);
+        for (byte[] request : requests) {
+            size += request.length;
+        }
+        byte[] batch = new byte[size];
+        batch[0] = '[';
+        int position = 1;
+        for (byte[] request : requests) {
+            System.arraycopy(request, 0, batch, position, request.length);
+            position += request.length;
+            batch[position++] = ',';
+        }
+        batch[size - 1] = ']';
+        return batch;
+    }
+
+    /**
+     * Passes a request in UTF-8 through the transport. A text transport is adapted
+     * with {@link BinaryTransport#of(Transport)}.
+     *
+     * @param request request in UTF-8
+     * @return response in UTF-8
+     * @throws IllegalStateException if an I/O error happens
+     */
+    @NotNull
+    protected byte[] pass(@NotNull byte[] request) {
+        try {
+            return BinaryTransport.of(transport).exchange(request);
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error during a request processing", e);
+        }
+    }
+
+    /**
+     * Passes a request in UTF-8 through the transport without blocking, if it's an {@link AsyncTransport}
+     * or a {@link BinaryTransport} which supports it. A blocking transport passes the request in the calling
+     * thread and returns a completed future.
+     *
+     * @param request request in UTF-8
+     * @return future response in UTF-8, which fails with {@link IllegalStateException}
+     * if an I/O error happens
+     */
+    @NotNull
+    protected CompletableFuture<byte[]> passAsync(@NotNull byte[] request) {
+        return BinaryTransport.of(transport).exchangeAsync(request).handle((response, e) -> {
+            if (e == null) {
+                return response;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IOException) {
+                throw new IllegalStateException("I/O error during a request processing", cause);
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Serializes a request to JSON in UTF-8
+     *
+     * @param request request or a batch of requests
+     * @return request in UTF-8
+     * @throws IllegalArgumentException if the request can't be serialized
+     */
+    @NotNull
+    protected byte[] toJson(@NotNull Object request) {
+        try {
+            return mapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable convert " + request + " to JSON", e);
+        }
+    }
+
+    /**
+     * Converts a JSON-RPC response to an expected type
+     *
+     * @param response response in UTF-8
+     * @param javaType expected type of the result
+     * @param <T>      expected type of the result
+     * @return the result
+     * @throws JsonRpcException      in case of JSON-RPC error, returned by the server
+     * @throws IllegalStateException if the response is not a valid JSON-RPC response
+     */
+    @Nullable
+    protected <T> T convertResponse(@NotNull byte[] response, @NotNull JavaType javaType) {
+        return readResponse(response, mapper.readerFor(javaType), true);
+    }
+
+    /**
+     * Reads a JSON-RPC response with a streaming parser and binds the result straight to the expected type.
+     * Fields could go in any order, but the result is buffered as a tree only if it goes before
+     * the protocol version, which should be checked first.
+     *
+     * @param response     response in UTF-8
+     * @param resultReader reader of the result or {@code null} if the result is ignored
+     * @param strict       whether the response should have the protocol version and the id
+     * @param <T>          expected type of the result
+     * @return the result
+     * @throws JsonRpcException      in case of JSON-RPC error, returned by the server
+     * @throws IllegalStateException if the response is not a valid JSON-RPC response
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    protected <T> T readResponse(@NotNull byte[] response, @Nullable ObjectReader resultReader, boolean strict) {
+        try (JsonParser parser = mapper.getFactory().createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Not a JSON-RPC response: " + text(response));
+            }
+            boolean versionSet = false;
+            boolean idSet = false;
+            boolean resultSet = false;
+            Object result = null;
+            JsonNode bufferedResult = null;
+            JsonNode error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case JSONRPC:
+                        String version = token.isScalarValue() ? parser.getValueAsString() : null;
+                        parser.skipChildren();
+                        if (strict && !VERSION_2_0.equals(version)) {
+                            throw new IllegalStateException("Bad protocol version in a response: " + text(response));
+                        }
+                        versionSet = true;
+                        break;
+                    case ID:
+                        parser.skipChildren();
+                        idSet = true;
+                        break;
+                    case RESULT:
+                        if (resultReader == null) {
+                            parser.skipChildren();
+                        } else if (versionSet || !strict) {
+                            result = resultReader.readValue(parser);
+                        } else {
+                            bufferedResult = mapper.readTree(parser);
+                        }
+                        resultSet = true;
+                        break;
+                    case ERROR:
+                        error = mapper.readTree(parser);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+
+            if (strict && !versionSet) {
+                throw new IllegalStateException("Not a JSON-RPC response: " + text(response));
+            }
+            if (strict && !idSet) {
+                throw new IllegalStateException("Unspecified id in a response: " + text(response));
+            }
+            if (error != null && !error.isNull()) {
+                throw new JsonRpcException(mapper.treeToValue(error, ErrorMessage.class));
+            }
+            if (!resultSet) {
+                throw new IllegalStateException("Neither result or error is set in a response: " + text(response));
+            }
+            return (T) (bufferedResult != null ? resultReader.readValue(bufferedResult) : result);
+        } catch (IOException e) {
+            throw unparsableResponse(response, e);
+        }
+    }
+
+    @NotNull
+    private static String text(@NotNull byte[] response) {
+        return new String(response, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates an exception for a response which is not a valid JSON
+     *
+     * @param response response in UTF-8
+     * @param cause    parsing error
+     * @return new exception with the response text
+     */
+    @NotNull
+    protected static IllegalStateException unparsableResponse(@NotNull byte[] response, @NotNull IOException cause) {
+        return new IllegalStateException("Unable parse a JSON response: " + text(response), cause);
+    }
 }
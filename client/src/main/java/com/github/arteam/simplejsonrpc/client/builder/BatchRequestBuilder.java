@@ -1,12 +1,15 @@
 package com.github.arteam.simplejsonrpc.client.builder;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.*;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.arteam.simplejsonrpc.client.AsyncTransport;
 import com.github.arteam.simplejsonrpc.client.Transport;
 import com.github.arteam.simplejsonrpc.client.exception.JsonRpcBatchException;
 import com.github.arteam.simplejsonrpc.core.domain.ErrorMessage;
@@ -16,8 +19,17 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 /**
  * Date: 10/12/14
@@ -38,6 +50,8 @@ import java.util.Map;
  *      .returnType(Player.class)
  *      .execute();
  * }</pre>
+ * <p> A large batch could be limited by a number of requests or by size. Then it's split to chunks,
+ * which are sent concurrently as separate batch requests, and their responses are merged.</p>
  */
 public class BatchRequestBuilder<K, V> extends AbstractBuilder {
 
@@ -67,6 +81,12 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
     @Nullable
     private final JavaType returnType;
 
+    /**
+     * Limits by which the batch is split to chunks
+     */
+    @NotNull
+    private final ChunkPolicy chunkPolicy;
+
     /**
      * Creates a new batch request builder in an initial state
      *
@@ -90,11 +110,19 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
     public BatchRequestBuilder(@NotNull Transport transport, @NotNull ObjectMapper mapper,
                                @NotNull List<ObjectNode> requests, @NotNull Map<Object, JavaType> returnTypes,
                                @Nullable Class<K> keysType, @Nullable JavaType returnType) {
+        this(transport, mapper, requests, returnTypes, keysType, returnType, ChunkPolicy.UNLIMITED);
+    }
+
+    private BatchRequestBuilder(@NotNull Transport transport, @NotNull ObjectMapper mapper,
+                                @NotNull List<ObjectNode> requests, @NotNull Map<Object, JavaType> returnTypes,
+                                @Nullable Class<K> keysType, @Nullable JavaType returnType,
+                                @NotNull ChunkPolicy chunkPolicy) {
         super(transport, mapper);
         this.requests = requests;
         this.returnTypes = returnTypes;
         this.keysType = keysType;
         this.returnType = returnType;
+        this.chunkPolicy = chunkPolicy;
     }
 
     /**
@@ -420,7 +448,8 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
      * @return a new builder
      */
     public <NK> BatchRequestBuilder<NK, V> keysType(@NotNull Class<NK> keysClass) {
-        return new BatchRequestBuilder<NK, V>(transport, mapper, requests, returnTypes, keysClass, returnType);
+        return new BatchRequestBuilder<NK, V>(transport, mapper, requests, returnTypes, keysClass, returnType,
+                chunkPolicy);
     }
 
     /**
@@ -433,7 +462,7 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
      */
     public <NV> BatchRequestBuilder<K, NV> returnType(@NotNull Class<NV> valuesClass) {
         return new BatchRequestBuilder<K, NV>(transport, mapper, requests, returnTypes, keysType,
-                TypeFactory.defaultInstance().constructType(valuesClass));
+                TypeFactory.defaultInstance().constructType(valuesClass), chunkPolicy);
     }
 
     /**
@@ -445,7 +474,58 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
      */
     public <NV> BatchRequestBuilder<K, NV> returnType(@NotNull TypeReference<NV> tr) {
         return new BatchRequestBuilder<K, NV>(transport, mapper, requests, returnTypes, keysType,
-                mapper.constructType(tr.getType()));
+                mapper.constructType(tr.getType()), chunkPolicy);
+    }
+
+    /**
+     * Sets a max number of requests in a batch. A larger batch is split to chunks, which are sent
+     * as separate batch requests.
+     *
+     * @param maxBatchSize max number of requests in a chunk
+     * @return a new builder
+     */
+    public BatchRequestBuilder<K, V> maxBatchSize(int maxBatchSize) {
+        return withChunkPolicy(chunkPolicy.withMaxSize(maxBatchSize));
+    }
+
+    /**
+     * Sets a max size of a batch request in bytes. A larger batch is split to chunks, which are sent
+     * as separate batch requests. A request, which is larger than the limit, is sent as a chunk alone.
+     *
+     * @param maxBatchBytes max size of a chunk in UTF-8
+     * @return a new builder
+     */
+    public BatchRequestBuilder<K, V> maxBatchBytes(int maxBatchBytes) {
+        return withChunkPolicy(chunkPolicy.withMaxBytes(maxBatchBytes));
+    }
+
+    /**
+     * Sets a max number of chunks in flight, 4 by default
+     *
+     * @param parallelism max number of concurrently sent chunks
+     * @return a new builder
+     */
+    public BatchRequestBuilder<K, V> parallelism(int parallelism) {
+        return withChunkPolicy(chunkPolicy.withParallelism(parallelism));
+    }
+
+    /**
+     * Sets an executor for sending chunks over a blocking {@link Transport}. If it's not set, every
+     * execution of the batch starts a pool of up to {@code parallelism} threads, which is stopped after
+     * the last chunk, so blocking I/O doesn't run in the common pool. An {@link AsyncTransport}
+     * doesn't need an executor.
+     *
+     * @param executor executor for blocking requests
+     * @return a new builder
+     */
+    public BatchRequestBuilder<K, V> executor(@NotNull Executor executor) {
+        return withChunkPolicy(chunkPolicy.withExecutor(executor));
+    }
+
+    @NotNull
+    private BatchRequestBuilder<K, V> withChunkPolicy(@NotNull ChunkPolicy chunkPolicy) {
+        return new BatchRequestBuilder<K, V>(transport, mapper, requests, returnTypes, keysType, returnType,
+                chunkPolicy);
     }
 
     /**
@@ -454,21 +534,101 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
      * @return map of responses by request ids
      */
     @NotNull
+    @SuppressWarnings("unchecked")
     public Map<K, V> execute() {
-        validateRequest();
-        String textResponse = executeRequest();
-        return processBatchResponse(textResponse);
+        Set<Object> requestIds = validateRequest();
+        if (!chunkPolicy.isLimited()) {
+            return processBatchResponse(pass(toJson(requests)), requestIds);
+        }
+        Map<Object, Object> successes = new HashMap<Object, Object>(requestIds.size() * 4 / 3 + 1);
+        Map<Object, ErrorMessage> errors = new HashMap<Object, ErrorMessage>();
+        await(new ChunkDispatch(chunks(), successes::put, errors::put).start());
+        return (Map<K, V>) results(successes, errors);
+    }
+
+    /**
+     * Validates and executes the request without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and processes the response
+     *
+     * @return future map of responses by request ids, which fails with {@link JsonRpcBatchException}
+     * if some requests failed
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Map<K, V>> executeAsync() {
+        Set<Object> requestIds = validateRequest();
+        if (!chunkPolicy.isLimited()) {
+            return passAsync(toJson(requests)).thenApply(response -> processBatchResponse(response, requestIds));
+        }
+        Map<Object, Object> successes = new HashMap<Object, Object>(requestIds.size() * 4 / 3 + 1);
+        Map<Object, ErrorMessage> errors = new HashMap<Object, ErrorMessage>();
+        return new ChunkDispatch(chunks(), successes::put, errors::put).start()
+                .thenApply(ignored -> (Map<K, V>) results(successes, errors));
+    }
+
+    /**
+     * Validates, executes the request and passes every response to a callback as soon as it's read.
+     * Responses are read from the batch response one by one, so they are not collected to a map
+     * and a response could be processed before the next one is parsed.
+     *
+     * @param onSuccess callback for results by request ids
+     * @param onError   callback for errors by request ids
+     */
+    public void execute(@NotNull BiConsumer<? super K, ? super V> onSuccess,
+                        @NotNull BiConsumer<? super K, ? super ErrorMessage> onError) {
+        Set<Object> requestIds = validateRequest();
+        if (!chunkPolicy.isLimited()) {
+            readBatchResponse(pass(toJson(requests)), requestIds, successConsumer(onSuccess), errorConsumer(onError));
+            return;
+        }
+        await(new ChunkDispatch(chunks(), successConsumer(onSuccess), errorConsumer(onError)).start());
+    }
+
+    /**
+     * Validates and executes the request without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and passes every response
+     * to a callback as soon as it's read
+     *
+     * @param onSuccess callback for results by request ids
+     * @param onError   callback for errors by request ids
+     * @return future which is completed when all responses are passed to the callbacks
+     */
+    @NotNull
+    public CompletableFuture<Void> executeAsync(@NotNull BiConsumer<? super K, ? super V> onSuccess,
+                                                @NotNull BiConsumer<? super K, ? super ErrorMessage> onError) {
+        Set<Object> requestIds = validateRequest();
+        if (chunkPolicy.isLimited()) {
+            return new ChunkDispatch(chunks(), successConsumer(onSuccess), errorConsumer(onError)).start();
+        }
+        return passAsync(toJson(requests)).thenAccept(response ->
+                readBatchResponse(response, requestIds, successConsumer(onSuccess), errorConsumer(onError)));
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Object, Object> successConsumer(@NotNull BiConsumer<? super K, ? super V> onSuccess) {
+        return (id, result) -> onSuccess.accept((K) id, (V) result);
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Object, ErrorMessage> errorConsumer(
+            @NotNull BiConsumer<? super K, ? super ErrorMessage> onError) {
+        return (id, error) -> onError.accept((K) id, error);
     }
 
     /**
      * Validates the request as a valid batch JSON-RPC request
+     *
+     * @return ids of the requests, which are used to match responses
      */
-    private void validateRequest() {
+    @NotNull
+    private Set<Object> validateRequest() {
         if (requests.isEmpty()) {
             throw new IllegalArgumentException("Requests are not set");
         }
 
-        List<?> requestIds = requestIds();
+        Set<Object> requestIds = requestIds();
         if (returnType == null) {
             for (Object id : requestIds) {
                 if (!returnTypes.containsKey(id)) {
@@ -483,61 +643,77 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
         for (Object id : requestIds) {
             checkIdType(id);
         }
+        return requestIds;
     }
 
     /**
-     * Executes the request through the transport
+     * Processes JSON-RPC batch response
      *
-     * @return backend response as a string
+     * @param response   response in UTF-8
+     * @param requestIds ids of the requests
+     * @return map of responses (Java objects) by request ids
      */
     @NotNull
-    private String executeRequest() {
-        try {
-            return transport.pass(mapper.writeValueAsString(requests));
-        } catch (IOException e) {
-            throw new IllegalStateException("I/O error during a request processing", e);
-        }
+    @SuppressWarnings("unchecked")
+    private Map<K, V> processBatchResponse(@NotNull byte[] response, @NotNull Set<Object> requestIds) {
+        Map<Object, Object> successes = new HashMap<Object, Object>(requestIds.size() * 4 / 3 + 1);
+        Map<Object, ErrorMessage> errors = new HashMap<Object, ErrorMessage>();
+        readBatchResponse(response, requestIds, successes::put, errors::put);
+        return (Map<K, V>) results(successes, errors);
     }
 
     /**
-     * Processes JSON-RPC batch response
+     * Returns results of the batch if there are no errors
      *
-     * @param textResponse response as a string
-     * @return map of responses (Java objects) by request ids
+     * @param successes results by request ids
+     * @param errors    errors by request ids
+     * @return the results
+     * @throws JsonRpcBatchException if some requests failed
      */
     @NotNull
-    @SuppressWarnings("unchecked")
-    private Map<K, V> processBatchResponse(@NotNull String textResponse) {
-        Map<Object, Object> successes = new HashMap<Object, Object>();
-        Map<Object, ErrorMessage> errors = new HashMap<Object, ErrorMessage>();
-        List<?> requestIds = requestIds();
+    private static Map<Object, Object> results(@NotNull Map<Object, Object> successes,
+                                               @NotNull Map<Object, ErrorMessage> errors) {
+        if (!errors.isEmpty()) {
+            throw new JsonRpcBatchException("Errors happened during batch request processing", successes, errors);
+        }
+        return successes;
+    }
 
-        try {
-            JsonNode jsonResponses = mapper.readTree(textResponse);
-            // If it's an empty response
-            if (jsonResponses.isTextual() && jsonResponses.asText().isEmpty() && requestIds.isEmpty()) {
-                return new HashMap<K, V>();
-            }
-            // Not an array
-            if (jsonResponses.getNodeType() != JsonNodeType.ARRAY) {
-                throw new IllegalStateException("Expected array but was " + jsonResponses.getNodeType());
+    /**
+     * Reads a JSON-RPC batch response as a stream of single responses. Only the current response
+     * is parsed to a tree, then it's converted and passed to a callback.
+     *
+     * @param response   response in UTF-8
+     * @param requestIds ids of the requests
+     * @param onSuccess  callback for results
+     * @param onError    callback for errors
+     */
+    private void readBatchResponse(@NotNull byte[] response, @NotNull Set<Object> requestIds,
+                                   @NotNull BiConsumer<Object, Object> onSuccess,
+                                   @NotNull BiConsumer<Object, ErrorMessage> onError) {
+        try (JsonParser parser = mapper.getFactory().createParser(response)) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_ARRAY) {
+                JsonNode jsonResponse = token != null ? mapper.readTree(parser) : MissingNode.getInstance();
+                // If it's an empty response
+                if ((jsonResponse.isMissingNode() || jsonResponse.isTextual() && jsonResponse.asText().isEmpty())
+                        && requestIds.isEmpty()) {
+                    return;
+                }
+                // Not an array
+                throw new IllegalStateException("Expected array but was " + jsonResponse.getNodeType());
             }
-
-            for (JsonNode responseNode : (ArrayNode) jsonResponses) {
-                processSingleResponse(responseNode, requestIds, successes, errors);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                processSingleResponse(mapper.readTree(parser), requestIds, onSuccess, onError);
             }
         } catch (IOException e) {
-            throw new IllegalStateException("Unable parse a JSON response: " + textResponse, e);
-        }
-        if (!errors.isEmpty()) {
-            throw new JsonRpcBatchException("Errors happened during batch request processing", successes, errors);
+            throw unparsableResponse(response, e);
         }
-        return (Map<K, V>) successes;
     }
 
-    private void processSingleResponse(@NotNull JsonNode responseNode, @NotNull List<?> requestIds,
-                                       @NotNull Map<Object, Object> successes,
-                                       @NotNull Map<Object, ErrorMessage> errors)
+    private void processSingleResponse(@NotNull JsonNode responseNode, @NotNull Set<Object> requestIds,
+                                       @NotNull BiConsumer<Object, Object> onSuccess,
+                                       @NotNull BiConsumer<Object, ErrorMessage> onError)
             throws JsonProcessingException {
         checkVersion(responseNode, responseNode.get(JSONRPC));
 
@@ -559,10 +735,10 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
 
         if (result != null) {
             JavaType actualReturnType = returnType != null ? returnType : returnTypes.get(idValue);
-            successes.put(idValue, mapper.convertValue(result, actualReturnType));
+            onSuccess.accept(idValue, mapper.convertValue(result, actualReturnType));
         } else {
             // Process as an error
-            errors.put(idValue, mapper.treeToValue(error, ErrorMessage.class));
+            onError.accept(idValue, mapper.treeToValue(error, ErrorMessage.class));
         }
     }
 
@@ -582,9 +758,12 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
         }
     }
 
+    /**
+     * Collects ids of the requests to a hash set, so a response is matched in constant time
+     */
     @NotNull
-    private List<?> requestIds() {
-        List<Object> ids = new ArrayList<Object>(requests.size());
+    private Set<Object> requestIds() {
+        Set<Object> ids = new HashSet<Object>(requests.size() * 4 / 3 + 1);
         for (ObjectNode request : requests) {
             JsonNode id = request.get(ID);
             if (id != null) {
@@ -594,6 +773,46 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
         return ids;
     }
 
+    /**
+     * Splits the requests to chunks by the limits of the batch
+     */
+    @NotNull
+    private List<Chunk> chunks() {
+        List<Chunk> chunks = new ArrayList<Chunk>();
+        Chunk chunk = new Chunk();
+        for (ObjectNode request : requests) {
+            byte[] json = toJson(request);
+            if (!chunk.fits(json)) {
+                chunks.add(chunk);
+                chunk = new Chunk();
+            }
+            chunk.add(json, request.get(ID));
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * @return whether chunks are sent in an executor, because the transport blocks
+     */
+    private boolean isBlocking() {
+        return !(transport instanceof AsyncTransport) && chunkPolicy.parallelism > 1;
+    }
+
+    /**
+     * Waits for a completion of the future and rethrows its failure
+     */
+    private static void await(@NotNull CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     // Visible for tests
     @NotNull
     List<ObjectNode> getRequests() {
@@ -612,4 +831,152 @@ public class BatchRequestBuilder<K, V> extends AbstractBuilder {
         throw new IllegalArgumentException("Wrong id=" + id);
     }
 
+    /**
+     * Part of the batch, which is sent as a separate batch request
+     */
+    private class Chunk {
+
+        @NotNull
+        final List<byte[]> requests = new ArrayList<byte[]>();
+
+        @NotNull
+        final Set<Object> ids = new HashSet<Object>();
+
+        /**
+         * Size of the chunk as a JSON array
+         */
+        int bytes = 1;
+
+        boolean fits(@NotNull byte[] request) {
+            if (requests.isEmpty()) {
+                return true;
+            }
+            return (chunkPolicy.maxSize == 0 || requests.size() < chunkPolicy.maxSize) &&
+                    (chunkPolicy.maxBytes == 0 || bytes + request.length + 1 <= chunkPolicy.maxBytes);
+        }
+
+        void add(@NotNull byte[] request, @Nullable JsonNode id) {
+            requests.add(request);
+            bytes += request.length + 1;
+            if (id != null) {
+                ids.add(nodeValue(id));
+            }
+        }
+
+        @NotNull
+        byte[] toJson() {
+            return batch(requests);
+        }
+    }
+
+    /**
+     * Sends chunks with a limited number of chunks in flight and passes their responses to callbacks.
+     * The callbacks are called under a lock, because chunks could be processed in different threads.
+     * A failed chunk fails the whole dispatch, and chunks which are not sent yet are skipped.
+     */
+    private class ChunkDispatch {
+
+        @NotNull
+        final List<Chunk> chunks;
+
+        @NotNull
+        final BiConsumer<Object, Object> onSuccess;
+
+        @NotNull
+        final BiConsumer<Object, ErrorMessage> onError;
+
+        @NotNull
+        final AtomicInteger next = new AtomicInteger();
+
+        @NotNull
+        final AtomicInteger remaining;
+
+        @NotNull
+        final CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+        /**
+         * Executor for chunks over a blocking transport or {@code null} if they're sent asynchronously
+         */
+        @Nullable
+        Executor executor;
+
+        ChunkDispatch(@NotNull List<Chunk> chunks, @NotNull BiConsumer<Object, Object> onSuccess,
+                      @NotNull BiConsumer<Object, ErrorMessage> onError) {
+            this.chunks = chunks;
+            this.remaining = new AtomicInteger(chunks.size());
+            this.onSuccess = (id, result) -> {
+                synchronized (this) {
+                    onSuccess.accept(id, result);
+                }
+            };
+            this.onError = (id, error) -> {
+                synchronized (this) {
+                    onError.accept(id, error);
+                }
+            };
+        }
+
+        @NotNull
+        CompletableFuture<Void> start() {
+            int inFlight = Math.min(chunkPolicy.parallelism, chunks.size());
+            if (isBlocking()) {
+                executor = chunkPolicy.executor;
+                if (executor == null) {
+                    ExecutorService ownExecutor = Executors.newFixedThreadPool(inFlight, r -> {
+                        Thread thread = new Thread(r, "json-rpc-batch-chunk");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    done.whenComplete((ignored, e) -> ownExecutor.shutdown());
+                    executor = ownExecutor;
+                }
+            }
+            for (int i = 0; i < inFlight; i++) {
+                sendNext();
+            }
+            return done;
+        }
+
+        void sendNext() {
+            int index;
+            while (!done.isDone() && (index = next.getAndIncrement()) < chunks.size()) {
+                Chunk chunk = chunks.get(index);
+                CompletableFuture<Void> processed = send(chunk.toJson())
+                        .thenAccept(response -> readBatchResponse(response, chunk.ids, onSuccess, onError));
+                if (!processed.isDone()) {
+                    processed.whenComplete((ignored, e) -> {
+                        if (completed(e)) {
+                            sendNext();
+                        }
+                    });
+                    return;
+                }
+                // Completed in the calling thread, so the next chunk is sent by the loop without a recursion
+                if (!completed(processed.handle((ignored, e) -> e).join())) {
+                    return;
+                }
+            }
+        }
+
+        @NotNull
+        CompletableFuture<byte[]> send(@NotNull byte[] chunk) {
+            return executor != null ? CompletableFuture.supplyAsync(() -> pass(chunk), executor) : passAsync(chunk);
+        }
+
+        /**
+         * Accounts a processed chunk
+         *
+         * @param e failure of the chunk or {@code null}
+         * @return whether the next chunk should be sent
+         */
+        boolean completed(@Nullable Throwable e) {
+            if (e != null) {
+                done.completeExceptionally(e instanceof CompletionException && e.getCause() != null ?
+                        e.getCause() : e);
+            } else if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+            return !done.isDone();
+        }
+    }
 }
@@ -0,0 +1,277 @@
+package com.github.arteam.simplejsonrpc.client.builder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.github.arteam.simplejsonrpc.client.ParamsType;
+import com.github.arteam.simplejsonrpc.client.Transport;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import com.github.arteam.simplejsonrpc.core.domain.ErrorMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * <p>Scope which records calls of service proxies and sends them as a single batch request.</p>
+ * <p>A method of a proxy created by the scope doesn't send a request. If it returns
+ * {@link CompletableFuture} or {@link java.util.concurrent.CompletionStage}, the future is completed
+ * when the batch is executed. Other methods return a placeholder ({@code null} or zero), and a typed
+ * future for such a call is obtained with {@link #call(Supplier)}. A JSON-RPC error fails the future
+ * of the call with {@link JsonRpcException}, so other calls in the batch are not affected.</p>
+ * <pre>{@code
+ * BatchScope batch = client.createBatchScope();
+ * TeamService teamService = batch.onDemand(TeamService.class);
+ * CompletableFuture<Player> stamkos = batch.call(() -> teamService.findByInitials("Steven", "Stamkos"));
+ * CompletableFuture<Player> allen = batch.call(() -> teamService.findByInitials("Jack", "Allen"));
+ * batch.execute();
+ * }</pre>
+ * <p>Calls get sequential ids in the batch, so id generators of the interfaces are not used.
+ * The scope is not thread-safe and could be executed again with new calls.</p>
+ */
+public class BatchScope extends AbstractBuilder {
+
+    /**
+     * Recorded requests in UTF-8
+     */
+    @NotNull
+    private final List<byte[]> requests = new ArrayList<byte[]>();
+
+    @NotNull
+    private final List<Call> calls = new ArrayList<Call>();
+
+    @Nullable
+    private CompletableFuture<?> lastCall;
+
+    @NotNull
+    final MethodCodecs methodCodecs;
+
+    public BatchScope(@NotNull Transport transport, @NotNull ObjectMapper mapper) {
+        this(transport, mapper, new MethodCodecs(mapper));
+    }
+
+    /**
+     * Creates a scope, which shares return types and result readers of methods with a client,
+     * so a short-lived scope doesn't resolve them again
+     *
+     * @param transport    transport abstraction
+     * @param mapper       json mapper
+     * @param methodCodecs cache of return types and result readers for the mapper
+     */
+    public BatchScope(@NotNull Transport transport, @NotNull ObjectMapper mapper,
+                      @NotNull MethodCodecs methodCodecs) {
+        super(transport, mapper);
+        this.methodCodecs = methodCodecs;
+    }
+
+    /**
+     * Creates a proxy which records calls of an interface to the batch
+     *
+     * @param clazz service interface
+     * @param <T>   interface type
+     * @return a new proxy
+     */
+    @NotNull
+    public <T> T onDemand(@NotNull Class<T> clazz) {
+        return newProxy(clazz, null);
+    }
+
+    /**
+     * Creates a proxy which records calls of an interface to the batch with a custom type of request params.
+     * It applies for all methods and overrides interface and method level settings.
+     *
+     * @param clazz      service interface
+     * @param paramsType custom type of request params
+     * @param <T>        interface type
+     * @return a new proxy
+     */
+    @NotNull
+    public <T> T onDemand(@NotNull Class<T> clazz, @NotNull ParamsType paramsType) {
+        return newProxy(clazz, paramsType);
+    }
+
+    /**
+     * Records a call of a proxy method and returns its future result
+     *
+     * @param call call of a single method of a proxy of the scope, e.g.
+     *             {@code () -> teamService.findByInitials("Steven", "Stamkos")}
+     * @param <T>  result type
+     * @return future result, which is completed when the batch is executed
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> call(@NotNull Supplier<T> call) {
+        lastCall = null;
+        call.get();
+        if (lastCall == null) {
+            throw new IllegalArgumentException("The call doesn't call a proxy of the batch scope");
+        }
+        return (CompletableFuture<T>) lastCall;
+    }
+
+    /**
+     * Sends the recorded calls as a batch and completes their futures
+     *
+     * @throws IllegalStateException if there is an I/O error or the response is not a valid batch response
+     */
+    public void execute() {
+        List<Call> sentCalls = new ArrayList<Call>(calls);
+        byte[] request = takeRequests();
+        byte[] response;
+        try {
+            response = pass(request);
+        } catch (RuntimeException e) {
+            fail(sentCalls, e);
+            throw e;
+        }
+        processResponse(sentCalls, response);
+    }
+
+    /**
+     * Sends the recorded calls as a batch without blocking the calling thread, if the transport is
+     * an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and completes their futures
+     *
+     * @return future which is completed when the futures of the calls are completed
+     */
+    @NotNull
+    public CompletableFuture<Void> executeAsync() {
+        List<Call> sentCalls = new ArrayList<Call>(calls);
+        return passAsync(takeRequests()).handle((response, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                fail(sentCalls, cause);
+                throw new CompletionException(cause);
+            }
+            processResponse(sentCalls, response);
+            return null;
+        });
+    }
+
+    /**
+     * Records a call of a proxy method
+     *
+     * @param method     method name
+     * @param params     method params as a map or an array
+     * @param returnType return type of the proxy method
+     * @return the future result, if the method returns a future, or a placeholder
+     */
+    @Nullable
+    Object add(@NotNull String method, @NotNull Object params, @NotNull JavaType returnType) {
+        boolean async = ObjectApiBuilder.isAsync(returnType);
+        Call call = new Call(async ? returnType.containedTypeOrUnknown(0) : returnType);
+        requests.add(writeRequest(new LongNode(calls.size() + 1), method, params));
+        calls.add(call);
+        lastCall = call.future;
+        if (async) {
+            return call.future;
+        }
+        Class<?> rawClass = returnType.getRawClass();
+        return rawClass.isPrimitive() && rawClass != void.class ? Array.get(Array.newInstance(rawClass, 1), 0) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private <T> T newProxy(@NotNull Class<T> clazz, @Nullable ParamsType paramsType) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{clazz},
+                new ObjectApiBuilder(clazz, this, paramsType));
+    }
+
+    @NotNull
+    private byte[] takeRequests() {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Requests are not set");
+        }
+        byte[] request = batch(requests);
+        requests.clear();
+        calls.clear();
+        lastCall = null;
+        return request;
+    }
+
+    private void processResponse(@NotNull List<Call> sentCalls, @NotNull byte[] response) {
+        JsonNode responseNodes;
+        try {
+            responseNodes = mapper.readTree(response);
+        } catch (IOException e) {
+            IllegalStateException error = unparsableResponse(response, e);
+            fail(sentCalls, error);
+            throw error;
+        }
+        if (!responseNodes.isArray()) {
+            // The whole batch is rejected, e.g. as an invalid request
+            JsonNode error = responseNodes.get(ERROR);
+            RuntimeException batchError = error != null ? new JsonRpcException(errorMessage(error)) :
+                    new IllegalStateException("Expected array but was " + responseNodes.getNodeType());
+            fail(sentCalls, batchError);
+            throw batchError;
+        }
+        for (JsonNode responseNode : responseNodes) {
+            JsonNode id = responseNode.get(ID);
+            if (id == null || !id.canConvertToLong() || id.asLong() < 1 || id.asLong() > sentCalls.size()) {
+                continue;
+            }
+            sentCalls.get((int) id.asLong() - 1).complete(responseNode);
+        }
+        for (int i = 0; i < sentCalls.size(); i++) {
+            sentCalls.get(i).future.completeExceptionally(
+                    new IllegalStateException("No response for a request with id=" + (i + 1)));
+        }
+    }
+
+    private static void fail(@NotNull List<Call> sentCalls, @NotNull Throwable e) {
+        for (Call call : sentCalls) {
+            call.future.completeExceptionally(e);
+        }
+    }
+
+    @NotNull
+    private ErrorMessage errorMessage(@NotNull JsonNode error) {
+        try {
+            return mapper.treeToValue(error, ErrorMessage.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable parse an error: " + error, e);
+        }
+    }
+
+    /**
+     * Recorded call with a future result
+     */
+    private class Call {
+
+        @NotNull
+        final JavaType resultType;
+
+        @NotNull
+        final CompletableFuture<Object> future = new CompletableFuture<Object>();
+
+        Call(@NotNull JavaType resultType) {
+            this.resultType = resultType;
+        }
+
+        void complete(@NotNull JsonNode responseNode) {
+            JsonNode result = responseNode.get(RESULT);
+            JsonNode error = responseNode.get(ERROR);
+            try {
+                if (error != null) {
+                    future.completeExceptionally(new JsonRpcException(errorMessage(error)));
+                } else if (result == null) {
+                    throw new IllegalStateException("Neither result or error is set in response: " + responseNode);
+                } else if (resultType.getRawClass() == void.class || resultType.getRawClass() == Void.class) {
+                    future.complete(null);
+                } else {
+                    future.complete(mapper.convertValue(result, resultType));
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
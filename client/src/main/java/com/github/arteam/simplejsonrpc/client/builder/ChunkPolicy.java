@@ -0,0 +1,76 @@
+package com.github.arteam.simplejsonrpc.client.builder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Immutable limits of a batch request, by which an oversized batch is split to chunks
+ */
+class ChunkPolicy {
+
+    /**
+     * Single batch without limits
+     */
+    static final ChunkPolicy UNLIMITED = new ChunkPolicy(0, 0, 4, null);
+
+    /**
+     * Max number of requests in a chunk or 0 if there is no limit
+     */
+    final int maxSize;
+
+    /**
+     * Max size of a chunk in bytes or 0 if there is no limit
+     */
+    final int maxBytes;
+
+    /**
+     * Max number of chunks in flight
+     */
+    final int parallelism;
+
+    /**
+     * Executor for chunks over a blocking transport or {@code null} for the default async pool
+     */
+    @Nullable
+    final Executor executor;
+
+    private ChunkPolicy(int maxSize, int maxBytes, int parallelism, @Nullable Executor executor) {
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.parallelism = parallelism;
+        this.executor = executor;
+    }
+
+    boolean isLimited() {
+        return maxSize > 0 || maxBytes > 0;
+    }
+
+    @NotNull
+    ChunkPolicy withMaxSize(int maxSize) {
+        return new ChunkPolicy(positive(maxSize, "Max batch size"), maxBytes, parallelism, executor);
+    }
+
+    @NotNull
+    ChunkPolicy withMaxBytes(int maxBytes) {
+        return new ChunkPolicy(maxSize, positive(maxBytes, "Max batch bytes"), parallelism, executor);
+    }
+
+    @NotNull
+    ChunkPolicy withParallelism(int parallelism) {
+        return new ChunkPolicy(maxSize, maxBytes, positive(parallelism, "Parallelism"), executor);
+    }
+
+    @NotNull
+    ChunkPolicy withExecutor(@NotNull Executor executor) {
+        return new ChunkPolicy(maxSize, maxBytes, parallelism, executor);
+    }
+
+    private static int positive(int value, @NotNull String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " should be positive, but was " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.arteam.simplejsonrpc.client.builder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.github.arteam.simplejsonrpc.client.ParamsType;
+import com.github.arteam.simplejsonrpc.client.Transport;
+import com.github.arteam.simplejsonrpc.client.generator.IdGenerator;
+import com.github.arteam.simplejsonrpc.client.metadata.MethodMetadata;
+import com.github.arteam.simplejsonrpc.client.metadata.ParameterMetadata;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>Base class of client stubs, which are generated for {@code @JsonRpcService} interfaces
+ * by the annotation processor from the {@code simple-json-rpc-client-processor} module.</p>
+ * <p>A stub implements an interface without {@link java.lang.reflect.Proxy}. Names, params and return types
+ * of its methods are resolved during compilation, so a call doesn't look up the metadata of the method.
+ * {@link com.github.arteam.simplejsonrpc.client.JsonRpcClient#onDemand(Class)} creates a stub, if it's
+ * generated for the interface, and a proxy otherwise.</p>
+ */
+public abstract class JsonRpcStub extends AbstractBuilder {
+
+    /**
+     * Suffix of the name of a stub, which is added to the binary name of an interface
+     * with '$' replaced by '_'
+     */
+    public static final String SUFFIX = "_JsonRpcStub";
+
+    /**
+     * Constructors of generated stubs by interfaces
+     */
+    private static final ClassValue<Optional<Constructor<?>>> STUB_CONSTRUCTORS =
+            new ClassValue<Optional<Constructor<?>>>() {
+                @Override
+                protected Optional<Constructor<?>> computeValue(Class<?> type) {
+                    return findStubConstructor(type);
+                }
+            };
+
+    @Nullable
+    private final ParamsType userParamsType;
+
+    @NotNull
+    private final IdGenerator<?> idGenerator;
+
+    @NotNull
+    private final MethodCodecs methodCodecs;
+
+    /**
+     * Creates a new stub
+     *
+     * @param transport      transport abstraction
+     * @param mapper         json mapper
+     * @param userParamsType custom type of request params
+     * @param idGenerator    id generator
+     * @param methodCodecs   cache of return types and result readers for the mapper
+     */
+    protected JsonRpcStub(@NotNull Transport transport, @NotNull ObjectMapper mapper,
+                          @Nullable ParamsType userParamsType, @NotNull IdGenerator<?> idGenerator,
+                          @NotNull MethodCodecs methodCodecs) {
+        super(transport, mapper);
+        this.userParamsType = userParamsType;
+        this.idGenerator = idGenerator;
+        this.methodCodecs = methodCodecs;
+    }
+
+    /**
+     * Executes a call of a service method
+     *
+     * @param method     metadata of the method
+     * @param returnType return type of the method
+     * @param args       actual arguments
+     * @return the result or a future result, if the method returns a future
+     */
+    @Nullable
+    protected final Object invoke(@NotNull MethodMetadata method, @NotNull Type returnType, @NotNull Object[] args) {
+        MethodCodecs.Codec codec = methodCodecs.get(method, returnType);
+        ParamsType paramsType = userParamsType != null ? userParamsType : method.getParamsType();
+        Object params = getParams(method, args, paramsType != null ? paramsType : ParamsType.MAP);
+        byte[] request = writeRequest(new POJONode(idGenerator.generate()), method.getName(), params);
+        if (codec.async) {
+            return passAsync(request).thenApply(response -> readResponse(response, codec.resultReader, false));
+        }
+        return readResponse(pass(request), codec.resultReader, false);
+    }
+
+    /**
+     * Creates metadata of a service method
+     *
+     * @param name       JSON-RPC method name
+     * @param paramsType type of request params
+     * @param params     param names in the order of arguments
+     * @param optional   whether params are optional
+     * @return metadata of the method
+     */
+    @NotNull
+    protected static MethodMetadata method(@NotNull String name, @NotNull ParamsType paramsType,
+                                           @NotNull String[] params, @NotNull boolean[] optional) {
+        Map<String, ParameterMetadata> paramsMetadata = new LinkedHashMap<String, ParameterMetadata>(8);
+        for (int i = 0; i < params.length; i++) {
+            paramsMetadata.put(params[i], new ParameterMetadata(i, optional[i]));
+        }
+        return new MethodMetadata(name, paramsType, paramsMetadata);
+    }
+
+    /**
+     * Creates a generated stub for an interface
+     *
+     * @param clazz           service interface
+     * @param transport       transport abstraction
+     * @param mapper          json mapper
+     * @param userParamsType  custom type of request params
+     * @param userIdGenerator custom id generator
+     * @param methodCodecs    cache of return types and result readers for the mapper
+     * @param <T>             interface type
+     * @return a new stub or {@code null}, if a stub isn't generated for the interface
+     */
+    @Nullable
+    public static <T> T newStub(@NotNull Class<T> clazz, @NotNull Transport transport, @NotNull ObjectMapper mapper,
+                                @Nullable ParamsType userParamsType, @Nullable IdGenerator<?> userIdGenerator,
+                                @NotNull MethodCodecs methodCodecs) {
+        Optional<Constructor<?>> constructor = STUB_CONSTRUCTORS.get(clazz);
+        if (!constructor.isPresent()) {
+            return null;
+        }
+        try {
+            return clazz.cast(constructor.get().newInstance(transport, mapper, userParamsType, userIdGenerator,
+                    methodCodecs));
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unable create a stub for " + clazz, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable create a stub for " + clazz, e);
+        }
+    }
+
+    @NotNull
+    private static Optional<Constructor<?>> findStubConstructor(@NotNull Class<?> clazz) {
+        if (!clazz.isInterface()) {
+            return Optional.empty();
+        }
+        Class<?> stubClass;
+        try {
+            stubClass = Class.forName(clazz.getName().replace('$', '_') + SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+        if (!JsonRpcStub.class.isAssignableFrom(stubClass) || !clazz.isAssignableFrom(stubClass)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(stubClass.getConstructor(Transport.class, ObjectMapper.class, ParamsType.class,
+                    IdGenerator.class, MethodCodecs.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Stub " + stubClass + " doesn't have a public constructor", e);
+        }
+    }
+}
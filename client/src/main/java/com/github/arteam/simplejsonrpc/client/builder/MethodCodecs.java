@@ -0,0 +1,83 @@
+package com.github.arteam.simplejsonrpc.client.builder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Thread-safe cache of return types and result readers of proxy and stub methods.</p>
+ * <p>Types and readers depend on the configuration of a mapper, so the cache is created per mapper
+ * and shared by proxies and stubs, which use the mapper. Then a service method doesn't resolve its generic
+ * return type on every call.</p>
+ */
+public class MethodCodecs {
+
+    @NotNull
+    private final ObjectMapper mapper;
+
+    /**
+     * Codecs by methods of proxies or by metadata of methods of generated stubs
+     */
+    @NotNull
+    private final ConcurrentMap<Object, Codec> codecs = new ConcurrentHashMap<Object, Codec>();
+
+    public MethodCodecs(@NotNull ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @NotNull
+    Codec get(@NotNull Method method) {
+        return get(method, method.getGenericReturnType());
+    }
+
+    @NotNull
+    Codec get(@NotNull Object method, @NotNull Type returnType) {
+        Codec codec = codecs.get(method);
+        if (codec == null) {
+            codec = new Codec(mapper.getTypeFactory().constructType(returnType));
+            Codec previous = codecs.putIfAbsent(method, codec);
+            if (previous != null) {
+                codec = previous;
+            }
+        }
+        return codec;
+    }
+
+    /**
+     * Return type and result reader of a method
+     */
+    class Codec {
+
+        /**
+         * Declared return type
+         */
+        @NotNull
+        final JavaType returnType;
+
+        /**
+         * Whether the method returns a future result
+         */
+        final boolean async;
+
+        /**
+         * Reader of the result or {@code null} if the method doesn't return a result
+         */
+        @Nullable
+        final ObjectReader resultReader;
+
+        Codec(@NotNull JavaType returnType) {
+            this.returnType = returnType;
+            this.async = ObjectApiBuilder.isAsync(returnType);
+            JavaType resultType = async ? returnType.containedTypeOrUnknown(0) : returnType;
+            Class<?> rawClass = resultType.getRawClass();
+            this.resultReader = rawClass == void.class || rawClass == Void.class ? null : mapper.readerFor(resultType);
+        }
+    }
+}
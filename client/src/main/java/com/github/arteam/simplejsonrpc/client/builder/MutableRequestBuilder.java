@@ -0,0 +1,253 @@
+package com.github.arteam.simplejsonrpc.client.builder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.node.ValueNode;
+import com.github.arteam.simplejsonrpc.client.Transport;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p> Mutable builder of JSON-RPC requests.</p>
+ * <p> Unlike {@link RequestBuilder}, every mutation changes the current builder, and params are collected
+ * as they are, without converting them to JSON trees. They are serialized straight to the request
+ * during execution, so adding a param doesn't copy the previous ones. It's suitable for requests
+ * with many params:</p>
+ * <pre>{@code
+ * MutableRequestBuilder<Player> request = client.createRequest()
+ *       .method("find")
+ *       .id(43121)
+ *       .returnAs(Player.class)
+ *       .mutable();
+ * for (Map.Entry<String, Object> filter : filters.entrySet()) {
+ *     request.param(filter.getKey(), filter.getValue());
+ * }
+ * Player player = request.execute();
+ * }</pre>
+ * <p> The builder is not thread-safe.</p>
+ */
+public class MutableRequestBuilder<T> extends AbstractBuilder {
+
+    /**
+     * JSON-RPC request method
+     */
+    @NotNull
+    private String method = "";
+
+    /**
+     * JSON-RPC request id
+     */
+    @NotNull
+    private ValueNode id = NullNode.instance;
+
+    /**
+     * JSON-RPC request params by names
+     */
+    @NotNull
+    private final Map<String, Object> objectParams = new LinkedHashMap<String, Object>();
+
+    /**
+     * JSON-RPC request params by positions
+     */
+    @Nullable
+    private Object[] arrayParams;
+
+    /**
+     * Expected response type
+     */
+    @NotNull
+    private JavaType javaType;
+
+    MutableRequestBuilder(@NotNull Transport transport, @NotNull ObjectMapper mapper, @NotNull JavaType javaType) {
+        super(transport, mapper);
+        this.javaType = javaType;
+    }
+
+    /**
+     * Sets a request id as a long value
+     *
+     * @param id a request id
+     * @return the current builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> id(@NotNull Long id) {
+        return id(new LongNode(id));
+    }
+
+    /**
+     * Sets a request id as an integer value
+     *
+     * @param id a request id
+     * @return the current builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> id(@NotNull Integer id) {
+        return id(new IntNode(id));
+    }
+
+    /**
+     * Sets a request id as a string value
+     *
+     * @param id a request id
+     * @return the current builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> id(@NotNull String id) {
+        return id(new TextNode(id));
+    }
+
+    @NotNull
+    MutableRequestBuilder<T> id(@NotNull ValueNode id) {
+        this.id = id;
+        return this;
+    }
+
+    /**
+     * Sets a request method
+     *
+     * @param method a request method
+     * @return the current builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> method(@NotNull String method) {
+        this.method = method;
+        return this;
+    }
+
+    /**
+     * Adds a new parameter to the request parameters.
+     * Calls to <i>params</i> method are not permitted after this method has been invoked.
+     *
+     * @param name  parameter name
+     * @param value parameter value
+     * @return the current builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> param(@NotNull String name, @NotNull Object value) {
+        objectParams.put(name, value);
+        return this;
+    }
+
+    /**
+     * Sets request parameters, which are interpreted according to their positions
+     *
+     * @param values array of parameters
+     * @return the current builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> params(@NotNull Object... values) {
+        arrayParams = values;
+        return this;
+    }
+
+    /**
+     * Sets expected return type. This method is suitable for non-generic types
+     *
+     * @param responseType expected return type
+     * @param <NT>         new return type
+     * @return the current builder
+     */
+    @NotNull
+    public <NT> MutableRequestBuilder<NT> returnAs(@NotNull Class<NT> responseType) {
+        return withType(mapper.getTypeFactory().constructType(responseType));
+    }
+
+    /**
+     * Sets expected return type as a generic type
+     *
+     * @param tr   type reference
+     * @param <NT> a generic type
+     * @return the current builder
+     */
+    @NotNull
+    public <NT> MutableRequestBuilder<NT> returnAs(@NotNull TypeReference<NT> tr) {
+        return withType(mapper.getTypeFactory().constructType(tr.getType()));
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private <NT> MutableRequestBuilder<NT> withType(@NotNull JavaType javaType) {
+        this.javaType = javaType;
+        return (MutableRequestBuilder<NT>) this;
+    }
+
+    /**
+     * Execute a request through {@link Transport} and convert a not null response to an expected type
+     *
+     * @return expected not null response
+     * @throws JsonRpcException      in case of JSON-RPC error, returned by the server
+     * @throws IllegalStateException if the response is null
+     */
+    @NotNull
+    public T execute() {
+        T result = executeNullable();
+        if (result == null) {
+            throw new IllegalStateException("Response is null. Use 'executeNullable' if this is acceptable");
+        }
+        return result;
+    }
+
+    /**
+     * Execute a request through {@link Transport} and convert a nullable response to an expected type
+     *
+     * @return expected response
+     * @throws JsonRpcException in case of JSON-RPC error, returned by the server
+     */
+    @Nullable
+    public T executeNullable() {
+        return convertResponse(pass(writeRequest(id, method, params())), javaType);
+    }
+
+    /**
+     * Execute a request through the transport without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and convert a not null
+     * response to an expected type
+     *
+     * @return future expected not null response
+     */
+    @NotNull
+    public CompletableFuture<T> executeAsync() {
+        return executeNullableAsync().thenApply(result -> {
+            if (result == null) {
+                throw new IllegalStateException("Response is null. Use 'executeNullableAsync' if this is acceptable");
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Execute a request through the transport without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and convert a nullable
+     * response to an expected type
+     *
+     * @return future expected response
+     */
+    @NotNull
+    public CompletableFuture<T> executeNullableAsync() {
+        JavaType resultType = javaType;
+        return passAsync(writeRequest(id, method, params()))
+                .thenApply(response -> this.<T>convertResponse(response, resultType));
+    }
+
+    @NotNull
+    private Object params() {
+        if (!objectParams.isEmpty()) {
+            if (arrayParams != null && arrayParams.length > 0) {
+                throw new IllegalArgumentException("Both object and array params are set");
+            }
+            return objectParams;
+        }
+        return arrayParams != null ? arrayParams : Collections.emptyList();
+    }
+}
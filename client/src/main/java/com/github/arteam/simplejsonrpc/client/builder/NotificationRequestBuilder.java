@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.arteam.simplejsonrpc.client.Transport;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Date: 8/17/14
  * Time: 11:09 PM
@@ -79,4 +81,15 @@ public class NotificationRequestBuilder {
         requestBuilder.executeRequest();
     }
 
+    /**
+     * Execute a request through the transport without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}
+     *
+     * @return future which is completed when the request is passed
+     */
+    @NotNull
+    public CompletableFuture<Void> executeAsync() {
+        return requestBuilder.executeRequestAsync().thenApply(response -> null);
+    }
+
 }
@@ -1,29 +1,28 @@
 package com.github.arteam.simplejsonrpc.client.builder;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.*;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.node.ValueNode;
 import com.github.arteam.simplejsonrpc.client.ParamsType;
 import com.github.arteam.simplejsonrpc.client.Transport;
-import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
 import com.github.arteam.simplejsonrpc.client.generator.IdGenerator;
 import com.github.arteam.simplejsonrpc.client.metadata.ClassMetadata;
 import com.github.arteam.simplejsonrpc.client.metadata.MethodMetadata;
-import com.github.arteam.simplejsonrpc.client.metadata.ParameterMetadata;
-import com.github.arteam.simplejsonrpc.core.domain.ErrorMessage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Date: 24.08.14
  * Time: 17:33
  * Proxy for accessing a remote JSON-RPC service trough an interface.
+ * Methods which return {@link CompletableFuture} or {@link CompletionStage} are executed
+ * asynchronously, if the transport is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}.
  */
 public class ObjectApiBuilder extends AbstractBuilder implements InvocationHandler {
 
@@ -36,6 +35,12 @@ public class ObjectApiBuilder extends AbstractBuilder implements InvocationHandl
     @NotNull
     private ClassMetadata classMetadata;
 
+    @Nullable
+    private BatchScope batchScope;
+
+    @NotNull
+    private final MethodCodecs methodCodecs;
+
     /**
      * Crate a new proxy for an interface
      *
@@ -47,10 +52,39 @@ public class ObjectApiBuilder extends AbstractBuilder implements InvocationHandl
      */
     public ObjectApiBuilder(@NotNull Class<?> clazz, @NotNull Transport transport, @NotNull ObjectMapper mapper,
                             @Nullable ParamsType userParamsType, @Nullable IdGenerator userIdGenerator) {
+        this(clazz, transport, mapper, userParamsType, userIdGenerator, new MethodCodecs(mapper));
+    }
+
+    /**
+     * Crate a new proxy for an interface with shared codecs of methods
+     *
+     * @param clazz           service interface
+     * @param transport       transport abstraction
+     * @param mapper          json mapper
+     * @param userParamsType  custom type of request params
+     * @param userIdGenerator custom id generator
+     * @param methodCodecs    cache of return types and result readers for the mapper
+     */
+    public ObjectApiBuilder(@NotNull Class<?> clazz, @NotNull Transport transport, @NotNull ObjectMapper mapper,
+                            @Nullable ParamsType userParamsType, @Nullable IdGenerator userIdGenerator,
+                            @NotNull MethodCodecs methodCodecs) {
         super(transport, mapper);
         this.classMetadata = Reflections.getClassMetadata(clazz);
         this.userParamsType = userParamsType;
         this.userIdGenerator = userIdGenerator;
+        this.methodCodecs = methodCodecs;
+    }
+
+    /**
+     * Crate a new proxy for an interface, which records calls to a batch scope
+     *
+     * @param clazz          service interface
+     * @param batchScope     batch of recorded calls
+     * @param userParamsType custom type of request params
+     */
+    ObjectApiBuilder(@NotNull Class<?> clazz, @NotNull BatchScope batchScope, @Nullable ParamsType userParamsType) {
+        this(clazz, batchScope.transport, batchScope.mapper, userParamsType, null, batchScope.methodCodecs);
+        this.batchScope = batchScope;
     }
 
     @Override
@@ -61,78 +95,34 @@ public class ObjectApiBuilder extends AbstractBuilder implements InvocationHandl
             throw new IllegalStateException("Method '" + method.getName() + "' is not JSON-RPC available");
         }
 
-        // Get method name (annotation or the actual name), params and id generator
+        // Get method name (annotation or the actual name), params and return type
         String methodName = methodMetadata.getName();
-        JsonNode params = getParams(methodMetadata, args, getParamsType(classMetadata, methodMetadata));
+        Object params = getParams(methodMetadata, args, getParamsType(classMetadata, methodMetadata));
+        MethodCodecs.Codec codec = methodCodecs.get(method);
+
+        // A call in a batch scope is sent later with other calls
+        if (batchScope != null) {
+            return batchScope.add(methodName, params, codec.returnType);
+        }
         IdGenerator<?> idGenerator = userIdGenerator != null ? userIdGenerator : classMetadata.getIdGenerator();
 
         //  Construct a request
         ValueNode id = new POJONode(idGenerator.generate());
-        String textResponse = execute(request(id, methodName, params));
-
-        // Parse a response
-        JsonNode responseNode = mapper.readTree(textResponse);
-        JsonNode result = responseNode.get(RESULT);
-        JsonNode error = responseNode.get(ERROR);
-        if (result != null) {
-            JavaType returnType = mapper.getTypeFactory().constructType(method.getGenericReturnType());
-            if (returnType.getRawClass() == void.class) {
-                return null;
-            }
-            return mapper.convertValue(result, returnType);
-        } else {
-            ErrorMessage errorMessage = mapper.treeToValue(error, ErrorMessage.class);
-            throw new JsonRpcException(errorMessage);
-        }
-    }
+        byte[] request = writeRequest(id, methodName, params);
 
-    /**
-     * Get request params in a JSON representation (map or array)
-     */
-    @NotNull
-    private JsonNode getParams(@NotNull MethodMetadata method, @NotNull Object[] args,
-                               @NotNull ParamsType paramsType) {
-        ObjectNode paramsAsMap = mapper.createObjectNode();
-        ArrayNode paramsAsArray = mapper.createArrayNode();
-        for (String paramName : method.getParams().keySet()) {
-            ParameterMetadata parameterMetadata = method.getParams().get(paramName);
-            int index = parameterMetadata.getIndex();
-            JsonNode jsonArg = mapper.valueToTree(args[index]);
-            if (jsonArg == null || jsonArg == NullNode.instance) {
-                if (parameterMetadata.isOptional()) {
-                    if (paramsType == ParamsType.ARRAY) {
-                        paramsAsArray.add(NullNode.instance);
-                    }
-                } else {
-                    throw new IllegalArgumentException("Parameter '" + paramName +
-                            "' of method '" + method.getName() + "' is mandatory and can't be null");
-                }
-            } else {
-                if (paramsType == ParamsType.MAP) {
-                    paramsAsMap.set(paramName, jsonArg);
-                } else if (paramsType == ParamsType.ARRAY) {
-                    paramsAsArray.add(jsonArg);
-                }
-            }
+        // A future result is converted when the response comes
+        if (codec.async) {
+            return passAsync(request).thenApply(response -> readResponse(response, codec.resultReader, false));
         }
-        return paramsType == ParamsType.MAP ? paramsAsMap : paramsAsArray;
+        return readResponse(pass(request), codec.resultReader, false);
     }
 
     /**
-     * Execute a request on a remote service and return a textual representation of a response
-     *
-     * @param request json representation of a request
-     * @return service response as a string
+     * Check if a method returns a future result
      */
-    @NotNull
-    private String execute(@NotNull ObjectNode request) {
-        try {
-            return transport.pass(mapper.writeValueAsString(request));
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Unable convert " + request + " to JSON", e);
-        } catch (IOException e) {
-            throw new IllegalStateException("I/O error during request processing", e);
-        }
+    static boolean isAsync(@NotNull JavaType returnType) {
+        Class<?> rawClass = returnType.getRawClass();
+        return rawClass == CompletableFuture.class || rawClass == CompletionStage.class;
     }
 
     /**
@@ -28,6 +28,17 @@ import java.util.Map;
  */
 class Reflections {
 
+    /**
+     * Metadata of service interfaces. It's computed once per interface, so creating a proxy
+     * doesn't scan the interface and doesn't instantiate an id generator again.
+     */
+    private static final ClassValue<ClassMetadata> CLASS_METADATA = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return scanClassMetadata(type);
+        }
+    };
+
     private Reflections() {
     }
 
@@ -39,6 +50,11 @@ class Reflections {
      */
     @NotNull
     public static ClassMetadata getClassMetadata(@NotNull Class<?> clazz) {
+        return CLASS_METADATA.get(clazz);
+    }
+
+    @NotNull
+    private static ClassMetadata scanClassMetadata(@NotNull Class<?> clazz) {
         Map<Method, MethodMetadata> methodsMetadata = new HashMap<Method, MethodMetadata>(32);
         Class<?> searchClass = clazz;
         while (searchClass != null) {
@@ -1,6 +1,5 @@
 package com.github.arteam.simplejsonrpc.client.builder;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -9,15 +8,15 @@ import com.fasterxml.jackson.databind.node.*;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.arteam.simplejsonrpc.client.Transport;
 import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
-import com.github.arteam.simplejsonrpc.core.domain.ErrorMessage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Date: 8/9/14
@@ -25,7 +24,8 @@ import java.util.Set;
  * <p> Type-safe builder of JSON-RPC requests.</p>
  * <p> It introduces fluent API to build a request, set an expected response type and perform the request.
  * Builder is immutable: every mutation creates a new object, so it's safe to use
- * in multi-threaded environment.</p>
+ * in multi-threaded environment. A request with many params could be built by
+ * a {@link MutableRequestBuilder}, which is obtained with {@link #mutable()}.</p>
  * <p> It delegates JSON processing to Jackson {@link ObjectMapper} and actual request performing
  * to {@link Transport}.</p>
  */
@@ -281,6 +281,30 @@ public class RequestBuilder<T> extends AbstractBuilder {
                 mapper.getTypeFactory().constructType(tr.getType()));
     }
 
+    /**
+     * Creates a mutable builder with the same method, id, params and response type. It adds params
+     * without copying the previous ones, so it's suitable for requests with many params.
+     *
+     * @return new mutable builder
+     */
+    @NotNull
+    public MutableRequestBuilder<T> mutable() {
+        MutableRequestBuilder<T> builder = new MutableRequestBuilder<T>(transport, mapper, javaType);
+        builder.method(method).id(id);
+        for (Iterator<Map.Entry<String, JsonNode>> fields = objectParams.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            builder.param(field.getKey(), field.getValue());
+        }
+        if (arrayParams.size() > 0) {
+            Object[] values = new Object[arrayParams.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = arrayParams.get(i);
+            }
+            builder.params(values);
+        }
+        return builder;
+    }
+
     /**
      * Execute a request through {@link Transport} and convert a not null response to an expected type
      *
@@ -308,58 +332,56 @@ public class RequestBuilder<T> extends AbstractBuilder {
         return executeAndConvert();
     }
 
+    /**
+     * Execute a request through the transport without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and convert a not null
+     * response to an expected type
+     *
+     * @return future expected not null response, which fails with {@link JsonRpcException}
+     * in case of JSON-RPC error, or with {@link IllegalStateException} if the response is null
+     * or can't be processed
+     */
+    @NotNull
+    public CompletableFuture<T> executeAsync() {
+        return executeNullableAsync().thenApply(result -> {
+            if (result == null) {
+                throw new IllegalStateException("Response is null. Use 'executeNullableAsync' if this is acceptable");
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Execute a request through the transport without blocking the calling thread, if the transport
+     * is an {@link com.github.arteam.simplejsonrpc.client.AsyncTransport}, and convert a nullable
+     * response to an expected type
+     *
+     * @return future expected response, which fails with {@link JsonRpcException}
+     * in case of JSON-RPC error
+     */
+    @NotNull
+    public CompletableFuture<T> executeNullableAsync() {
+        return executeRequestAsync().thenApply(this::convertResponse);
+    }
+
     @Nullable
-    @SuppressWarnings("unchecked")
     private T executeAndConvert() {
-        String textResponse = executeRequest();
-
-        try {
-            JsonNode responseNode = mapper.readTree(textResponse);
-            JsonNode result = responseNode.get(RESULT);
-            JsonNode error = responseNode.get(ERROR);
-            JsonNode version = responseNode.get(JSONRPC);
-            JsonNode id = responseNode.get(ID);
+        return convertResponse(executeRequest());
+    }
 
-            if (version == null) {
-                throw new IllegalStateException("Not a JSON-RPC response: " + responseNode);
-            }
-            if (!version.asText().equals(VERSION_2_0)) {
-                throw new IllegalStateException("Bad protocol version in a response: " + responseNode);
-            }
-            if (id == null) {
-                throw new IllegalStateException("Unspecified id in a response: " + responseNode);
-            }
+    @Nullable
+    private T convertResponse(@NotNull byte[] response) {
+        return convertResponse(response, javaType);
+    }
 
-            if (error == null) {
-                if (result != null) {
-                    return mapper.convertValue(result, javaType);
-                } else {
-                    throw new IllegalStateException("Neither result or error is set in a response: " + responseNode);
-                }
-            } else {
-                ErrorMessage errorMessage = mapper.treeToValue(error, ErrorMessage.class);
-                throw new JsonRpcException(errorMessage);
-            }
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Unable parse a JSON response: " + textResponse, e);
-        }
+    @NotNull
+    byte[] executeRequest() {
+        return pass(writeRequest(id, method, params()));
     }
 
-    String executeRequest() {
-        ObjectNode requestNode = request(id, method, params());
-        String textRequest;
-        String textResponse;
-        try {
-            textRequest = mapper.writeValueAsString(requestNode);
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Unable convert " + requestNode + " to JSON", e);
-        }
-        try {
-            textResponse = transport.pass(textRequest);
-        } catch (IOException e) {
-            throw new IllegalStateException("I/O error during a request processing", e);
-        }
-        return textResponse;
+    @NotNull
+    CompletableFuture<byte[]> executeRequestAsync() {
+        return passAsync(writeRequest(id, method, params()));
     }
 
     @NotNull
@@ -4,19 +4,33 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.github.arteam.simplejsonrpc.client.builder.BatchRequestBuilder;
 import com.github.arteam.simplejsonrpc.client.domain.Player;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcBatchException;
+import com.github.arteam.simplejsonrpc.core.domain.ErrorMessage;
 import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Date: 10/12/14
@@ -224,4 +238,194 @@ public class BatchRequestBuilderTest {
                 .execute();
         assertThat(result).isEmpty();
     }
+
+    @Test
+    public void testStreamingCallbacks() {
+        JsonRpcClient client = initClient("batch");
+        Map<String, Player> result = new LinkedHashMap<>();
+        Map<String, ErrorMessage> errors = new HashMap<>();
+        client.createBatchRequest()
+                .add("43121", "findByInitials", stevenStamkos())
+                .add("43122", "findByInitials", jackAllen())
+                .add("43123", "findByInitials", vladimirSobotka())
+                .keysType(String.class)
+                .returnType(Player.class)
+                .execute(result::put, errors::put);
+        checkBatch(result);
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    public void testStreamingCallbacksWithErrors() {
+        JsonRpcClient client = new JsonRpcClient(request -> "[" +
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"first\"}," +
+                "{\"jsonrpc\":\"2.0\",\"id\":2,\"error\":{\"code\":-32601,\"message\":\"Method not found\"}}," +
+                "{\"jsonrpc\":\"2.0\",\"id\":3,\"result\":\"third\"}]");
+        List<Integer> order = new ArrayList<>();
+        Map<Integer, String> result = new HashMap<>();
+        Map<Integer, ErrorMessage> errors = new HashMap<>();
+        client.createBatchRequest()
+                .add(1, "first")
+                .add(2, "second")
+                .add(3, "third")
+                .keysType(Integer.class)
+                .returnType(String.class)
+                .execute((id, value) -> {
+                    order.add(id);
+                    result.put(id, value);
+                }, (id, error) -> {
+                    order.add(id);
+                    errors.put(id, error);
+                });
+        assertThat(order).containsExactly(1, 2, 3);
+        assertThat(result).containsEntry(1, "first").containsEntry(3, "third").hasSize(2);
+        assertThat(errors.get(2).getCode()).isEqualTo(-32601);
+    }
+
+    @Test
+    public void testStreamingCallbacksAsync() throws Exception {
+        JsonRpcClient client = initClient("batch");
+        Map<String, Player> result = new HashMap<>();
+        client.createBatchRequest()
+                .add("43121", "findByInitials", stevenStamkos())
+                .add("43122", "findByInitials", jackAllen())
+                .add("43123", "findByInitials", vladimirSobotka())
+                .keysType(String.class)
+                .returnType(Player.class)
+                .executeAsync(result::put, (id, error) -> {
+                    throw new AssertionError("Unexpected error " + error);
+                })
+                .get(5, TimeUnit.SECONDS);
+        checkBatch(result);
+    }
+
+    @Test
+    public void testSplitBySize() {
+        List<JsonNode> chunks = new ArrayList<>();
+        BatchRequestBuilder<Long, Long> batch = new JsonRpcClient(request -> twice(request, chunks))
+                .createBatchRequest()
+                .keysType(Long.class)
+                .returnType(Long.class)
+                .maxBatchSize(3);
+        for (long id = 1; id <= 10; id++) {
+            batch.add(id, "twice", id);
+        }
+        Map<Long, Long> result = batch.execute();
+        assertThat(chunks).extracting(JsonNode::size).containsExactlyInAnyOrder(3, 3, 3, 1);
+        assertThat(result).hasSize(10);
+        for (long id = 1; id <= 10; id++) {
+            assertThat(result.get(id)).isEqualTo(id * 2);
+        }
+    }
+
+    @Test
+    public void testSplitWithoutExecutor() {
+        List<JsonNode> chunks = new CopyOnWriteArrayList<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        BatchRequestBuilder<Long, Long> batch = new JsonRpcClient(request -> {
+            threads.add(Thread.currentThread().getName());
+            return twice(request, chunks);
+        }).createBatchRequest()
+                .keysType(Long.class)
+                .returnType(Long.class)
+                .maxBatchSize(2);
+        for (long id = 1; id <= 10; id++) {
+            batch.add(id, "twice", id);
+        }
+        assertThat(batch.execute()).hasSize(10).containsEntry(10L, 20L);
+        assertThat(chunks).hasSize(5);
+        // Blocking chunks don't run in the common pool
+        assertThat(threads).allMatch(name -> name.equals("json-rpc-batch-chunk"));
+    }
+
+    @Test
+    public void testSplitByBytes() throws Exception {
+        List<JsonNode> chunks = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BatchRequestBuilder<Long, Long> batch = new JsonRpcClient(request -> twice(request, chunks))
+                    .createBatchRequest()
+                    .keysType(Long.class)
+                    .returnType(Long.class)
+                    .maxBatchBytes(200)
+                    .executor(executor);
+            for (long id = 1; id <= 20; id++) {
+                batch.add(id, "twice", id);
+            }
+            Map<Long, Long> result = batch.executeAsync().get(5, TimeUnit.SECONDS);
+            assertThat(chunks).hasSizeGreaterThan(1);
+            for (JsonNode chunk : chunks) {
+                assertThat(mapper.writeValueAsBytes(chunk).length).isLessThanOrEqualTo(200);
+            }
+            assertThat(result).hasSize(20).containsEntry(20L, 40L);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSplitWithErrors() {
+        List<JsonNode> chunks = new ArrayList<>();
+        BatchRequestBuilder<Long, Long> batch = new JsonRpcClient(request -> twice(request, chunks))
+                .createBatchRequest()
+                .keysType(Long.class)
+                .returnType(Long.class)
+                .maxBatchSize(2)
+                .parallelism(1);
+        batch.add(1L, "twice", 1)
+                .add(2L, "fail")
+                .add(3L, "twice", 3)
+                .add("updateCache")
+                .add(4L, "fail");
+        assertThatThrownBy(batch::execute)
+                .isInstanceOfSatisfying(JsonRpcBatchException.class, e -> {
+                    assertThat(e.getSuccesses()).hasSize(2);
+                    assertThat(e.getSuccesses().get(1L)).isEqualTo(2L);
+                    assertThat(e.getSuccesses().get(3L)).isEqualTo(6L);
+                    assertThat(e.getErrors()).hasSize(2);
+                    assertThat(e.getErrors().get(4L).getCode()).isEqualTo(-32603);
+                });
+        assertThat(chunks).hasSize(3);
+    }
+
+    @Test
+    public void testSplitTransportError() {
+        BatchRequestBuilder<Long, Long> batch = new JsonRpcClient(request -> {
+            throw new IOException("Connection refused");
+        }).createBatchRequest()
+                .keysType(Long.class)
+                .returnType(Long.class)
+                .maxBatchSize(1);
+        batch.add(1L, "twice", 1).add(2L, "twice", 2);
+        assertThatThrownBy(batch::execute)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("I/O error during a request processing");
+    }
+
+    /**
+     * Doubles params of the requests of a batch and fails requests to the "fail" method
+     */
+    private String twice(String request, List<JsonNode> chunks) throws IOException {
+        JsonNode batch = mapper.readTree(request);
+        synchronized (chunks) {
+            chunks.add(batch);
+        }
+        ArrayNode responses = mapper.createArrayNode();
+        for (JsonNode singleRequest : batch) {
+            if (!singleRequest.has("id")) {
+                continue;
+            }
+            ObjectNode response = responses.addObject();
+            response.put("jsonrpc", "2.0");
+            response.set("id", singleRequest.get("id"));
+            if (singleRequest.get("method").asText().equals("fail")) {
+                ObjectNode error = response.putObject("error");
+                error.put("code", -32603);
+                error.put("message", "Internal error");
+            } else {
+                response.put("result", singleRequest.get("params").get(0).asLong() * 2);
+            }
+        }
+        return mapper.writeValueAsString(responses);
+    }
 }
@@ -0,0 +1,188 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.arteam.simplejsonrpc.client.builder.BatchScope;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests recording proxy calls to a batch
+ */
+public class BatchScopeTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Requests received by the backend
+     */
+    private final List<JsonNode> received = new ArrayList<>();
+
+    @JsonRpcService
+    public interface CalculatorService {
+
+        @JsonRpcMethod
+        long add(@JsonRpcParam("a") long a, @JsonRpcParam("b") long b);
+
+        @JsonRpcMethod
+        String concat(@JsonRpcParam("a") String a, @JsonRpcParam("b") String b);
+
+        @JsonRpcMethod
+        CompletableFuture<List<Long>> range(@JsonRpcParam("a") long a, @JsonRpcParam("b") long b);
+
+        @JsonRpcMethod
+        CompletionStage<Void> reset();
+
+        @JsonRpcMethod
+        long divide(@JsonRpcParam("a") long a, @JsonRpcParam("b") long b);
+    }
+
+    /**
+     * Computes results of a batch of calculator requests
+     */
+    private String calculate(String request) throws IOException {
+        JsonNode batch = mapper.readTree(request);
+        received.add(batch);
+        ArrayNode responses = mapper.createArrayNode();
+        for (JsonNode singleRequest : batch) {
+            ObjectNode response = responses.addObject();
+            response.put("jsonrpc", "2.0");
+            response.set("id", singleRequest.get("id"));
+            JsonNode params = singleRequest.get("params");
+            switch (singleRequest.get("method").asText()) {
+                case "add":
+                    response.put("result", params.get("a").asLong() + params.get("b").asLong());
+                    break;
+                case "concat":
+                    response.put("result", params.get("a").asText() + params.get("b").asText());
+                    break;
+                case "range":
+                    ArrayNode range = response.putArray("result");
+                    for (long i = params.get("a").asLong(); i < params.get("b").asLong(); i++) {
+                        range.add(i);
+                    }
+                    break;
+                case "reset":
+                    response.putNull("result");
+                    break;
+                default:
+                    ObjectNode error = response.putObject("error");
+                    error.put("code", -32603);
+                    error.put("message", "Division by zero");
+            }
+        }
+        return mapper.writeValueAsString(responses);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        CalculatorService calculator = batch.onDemand(CalculatorService.class);
+        CompletableFuture<Long> sum = batch.call(() -> calculator.add(2, 3));
+        CompletableFuture<String> text = batch.call(() -> calculator.concat("a", "b"));
+        CompletableFuture<List<Long>> range = calculator.range(1, 4);
+        CompletionStage<Void> reset = calculator.reset();
+        assertThat(sum).isNotDone();
+        assertThat(received).isEmpty();
+
+        batch.execute();
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).size()).isEqualTo(4);
+        assertThat(sum.get()).isEqualTo(5L);
+        assertThat(text.get()).isEqualTo("ab");
+        assertThat(range.get()).containsExactly(1L, 2L, 3L);
+        assertThat(reset.toCompletableFuture().get()).isNull();
+    }
+
+    @Test
+    public void testSequentialIds() throws Exception {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        CalculatorService calculator = batch.onDemand(CalculatorService.class);
+        calculator.add(1, 1);
+        calculator.add(2, 2);
+        batch.execute();
+        assertThat(received.get(0).get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(received.get(0).get(1).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testError() throws Exception {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        CalculatorService calculator = batch.onDemand(CalculatorService.class);
+        CompletableFuture<Long> quotient = batch.call(() -> calculator.divide(1, 0));
+        CompletableFuture<Long> sum = batch.call(() -> calculator.add(1, 2));
+        batch.execute();
+        assertThat(sum.get()).isEqualTo(3L);
+        assertThatThrownBy(quotient::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(JsonRpcException.class);
+        JsonRpcException e = (JsonRpcException) quotient.handle((r, t) -> t).get();
+        assertThat(e.getErrorMessage().getMessage()).isEqualTo("Division by zero");
+    }
+
+    @Test
+    public void testExecuteAsync() throws Exception {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        CalculatorService calculator = batch.onDemand(CalculatorService.class);
+        CompletableFuture<Long> sum = batch.call(() -> calculator.add(20, 22));
+        batch.executeAsync().get(5, TimeUnit.SECONDS);
+        assertThat(sum.get()).isEqualTo(42L);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        CalculatorService calculator = batch.onDemand(CalculatorService.class);
+        CompletableFuture<Long> first = batch.call(() -> calculator.add(1, 1));
+        batch.execute();
+        CompletableFuture<Long> second = batch.call(() -> calculator.add(2, 2));
+        batch.execute();
+        assertThat(first.get()).isEqualTo(2L);
+        assertThat(second.get()).isEqualTo(4L);
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    public void testTransportError() {
+        BatchScope batch = new JsonRpcClient(request -> {
+            throw new IOException("Connection refused");
+        }).createBatchScope();
+        CompletableFuture<Long> sum = batch.call(() -> batch.onDemand(CalculatorService.class).add(1, 1));
+        assertThatThrownBy(batch::execute)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("I/O error during a request processing");
+        assertThat(sum).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        assertThatThrownBy(batch::execute)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Requests are not set");
+    }
+
+    @Test
+    public void testCallWithoutProxy() {
+        BatchScope batch = new JsonRpcClient(this::calculate).createBatchScope();
+        assertThatThrownBy(() -> batch.call(() -> 42))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
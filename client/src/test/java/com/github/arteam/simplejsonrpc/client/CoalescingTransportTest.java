@@ -0,0 +1,221 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.arteam.simplejsonrpc.client.generator.AtomicLongIdGenerator;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests merging concurrent requests into batches
+ */
+public class CoalescingTransportTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Requests received by the backend
+     */
+    private final List<JsonNode> received = new CopyOnWriteArrayList<>();
+
+    private CoalescingTransport transport;
+
+    @JsonRpcService
+    public interface EchoService {
+
+        @JsonRpcMethod
+        CompletableFuture<String> echo(@JsonRpcParam("value") String value);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    /**
+     * Responds to every request with its method name, except for the "skip" method
+     */
+    private String echo(String request) throws IOException {
+        JsonNode requestNode = mapper.readTree(request);
+        received.add(requestNode);
+        if (!requestNode.isArray()) {
+            return mapper.writeValueAsString(response(requestNode));
+        }
+        ArrayNode responses = mapper.createArrayNode();
+        for (JsonNode singleRequest : requestNode) {
+            if (singleRequest.has("id") && !singleRequest.get("method").asText().equals("skip")) {
+                responses.add(response(singleRequest));
+            }
+        }
+        return responses.size() == 0 ? "" : mapper.writeValueAsString(responses);
+    }
+
+    private ObjectNode response(JsonNode request) {
+        ObjectNode response = mapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        JsonNode params = request.get("params");
+        response.set("result", params.has("value") ? params.get("value") : request.get("method"));
+        return response;
+    }
+
+    private CoalescingTransport.Builder builder() {
+        return CoalescingTransport.builder(this::echo);
+    }
+
+    private CompletableFuture<String> request(JsonRpcClient client, Object id, String method) {
+        return client.createRequest()
+                .method(method)
+                .id(String.valueOf(id))
+                .returnAs(String.class)
+                .executeAsync();
+    }
+
+    @Test
+    public void testMergeRequests() throws Exception {
+        transport = builder().window(Duration.ofMillis(200)).build();
+        JsonRpcClient client = new JsonRpcClient(transport);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(request(client, i, "method" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("method" + i);
+        }
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).size()).isEqualTo(10);
+    }
+
+    @Test
+    public void testMaxBatchSize() throws Exception {
+        transport = builder().window(Duration.ofSeconds(10)).maxBatchSize(3).build();
+        JsonRpcClient client = new JsonRpcClient(transport);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(request(client, i, "method" + i));
+        }
+        for (int i = 0; i < 6; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("method" + i);
+        }
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    public void testSingleRequestIsNotWrapped() throws Exception {
+        transport = builder().build();
+        String result = new JsonRpcClient(transport).createRequest()
+                .method("ping")
+                .id(1)
+                .returnAs(String.class)
+                .execute();
+        assertThat(result).isEqualTo("ping");
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).isObject()).isTrue();
+    }
+
+    @Test
+    public void testDuplicateIdsAreSplit() throws Exception {
+        transport = builder().window(Duration.ofMillis(100)).build();
+        JsonRpcClient client = new JsonRpcClient(transport);
+        CompletableFuture<String> first = request(client, 1, "first");
+        CompletableFuture<String> second = request(client, 1, "second");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    public void testNotifications() throws Exception {
+        transport = builder().window(Duration.ofMillis(100)).build();
+        JsonRpcClient client = new JsonRpcClient(transport);
+        CompletableFuture<Void> notification = client.createNotification()
+                .method("log")
+                .executeAsync();
+        CompletableFuture<String> result = request(client, 1, "ping");
+        notification.get(5, TimeUnit.SECONDS);
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ping");
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMissingResponse() throws Exception {
+        transport = builder().window(Duration.ofMillis(100)).build();
+        JsonRpcClient client = new JsonRpcClient(transport);
+        CompletableFuture<String> skipped = request(client, 1, "skip");
+        CompletableFuture<String> result = request(client, 2, "ping");
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ping");
+        assertThatThrownBy(() -> skipped.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("No response for a request with id=\"1\"");
+    }
+
+    @Test
+    public void testTransportError() {
+        transport = CoalescingTransport.builder(request -> {
+            throw new IOException("Connection refused");
+        }).build();
+        assertThatThrownBy(() -> new JsonRpcClient(transport).createRequest()
+                .method("ping")
+                .id(1)
+                .returnAs(String.class)
+                .execute())
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Connection refused");
+    }
+
+    @Test
+    public void testRejectedBatchIsSentInline() throws Exception {
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException("Scheduler is shut down");
+            }
+        };
+        try {
+            transport = builder().window(Duration.ofSeconds(10)).maxBatchSize(2).scheduler(scheduler).build();
+            JsonRpcClient client = new JsonRpcClient(transport);
+            CompletableFuture<String> first = request(client, 1, "first");
+            CompletableFuture<String> second = request(client, 2, "second");
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+            assertThat(received).hasSize(1);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testProxy() throws Exception {
+        transport = builder().window(Duration.ofMillis(200)).build();
+        EchoService service = new JsonRpcClient(transport).onDemand(EchoService.class, new AtomicLongIdGenerator());
+        CompletableFuture<String> first = service.echo("first");
+        CompletableFuture<String> second = service.echo("second");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(received).hasSize(1);
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import com.github.arteam.simplejsonrpc.client.domain.Player;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcBatchException;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests asynchronous execution of requests
+ */
+public class JsonRpcClientAsyncTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @JsonRpcService
+    public interface AsyncTeamService {
+
+        @JsonRpcMethod
+        CompletableFuture<List<Player>> findByTeam(@JsonRpcParam("team") String team);
+
+        @JsonRpcMethod
+        CompletionStage<Long> login(@JsonRpcParam("login") String login);
+
+        @JsonRpcMethod
+        CompletableFuture<Void> logout(@JsonRpcParam("token") long token);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private JsonRpcClient asyncClient(Function<String, String> backend) {
+        return new JsonRpcClient(new AsyncTransport() {
+            @NotNull
+            @Override
+            public CompletableFuture<String> passAsync(@NotNull String request) {
+                return CompletableFuture.supplyAsync(() -> backend.apply(request), executor);
+            }
+        });
+    }
+
+    @Test
+    public void testExecuteAsync() throws Exception {
+        JsonRpcClient client = asyncClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":42}");
+        CompletableFuture<Integer> result = client.createRequest()
+                .method("answer")
+                .id(1)
+                .returnAs(Integer.class)
+                .executeAsync();
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+    }
+
+    @Test
+    public void testManyRequestsInFlight() throws Exception {
+        JsonRpcClient client = asyncClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"ok\"}");
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            results.add(client.createRequest()
+                    .method("ping")
+                    .id(i)
+                    .returnAs(String.class)
+                    .executeAsync());
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertThat(results).allMatch(result -> result.join().equals("ok"));
+    }
+
+    @Test
+    public void testNullResult() {
+        JsonRpcClient client = asyncClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":null}");
+        CompletableFuture<Object> result = client.createRequest()
+                .method("find")
+                .id(1)
+                .executeAsync();
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        CompletableFuture<Object> nullableResult = client.createRequest()
+                .method("find")
+                .id(1)
+                .executeNullableAsync();
+        assertThat(nullableResult.join()).isNull();
+    }
+
+    @Test
+    public void testJsonRpcError() {
+        JsonRpcClient client = asyncClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1," +
+                "\"error\":{\"code\":-32601,\"message\":\"Method not found\"}}");
+        CompletableFuture<Object> result = client.createRequest()
+                .method("unknown")
+                .id(1)
+                .executeAsync();
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(JsonRpcException.class)
+                .satisfies(e -> assertThat(((JsonRpcException) e.getCause()).getErrorMessage().getCode())
+                        .isEqualTo(-32601));
+    }
+
+    @Test
+    public void testIOError() {
+        JsonRpcClient client = new JsonRpcClient(new AsyncTransport() {
+            @NotNull
+            @Override
+            public CompletableFuture<String> passAsync(@NotNull String request) {
+                CompletableFuture<String> response = new CompletableFuture<>();
+                response.completeExceptionally(new IOException("Network is down"));
+                return response;
+            }
+        });
+        CompletableFuture<Object> result = client.createRequest()
+                .method("update")
+                .id(1)
+                .executeAsync();
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseInstanceOf(IOException.class);
+        assertThatThrownBy(() -> client.createRequest().method("update").id(1).execute())
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Network is down");
+    }
+
+    @Test
+    public void testBatchExecuteAsync() throws Exception {
+        JsonRpcClient client = asyncClient(request -> "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"a\"}," +
+                "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"b\"}]");
+        Map<Integer, String> results = client.createBatchRequest()
+                .add(1, "letter", 0)
+                .add(2, "letter", 1)
+                .keysType(Integer.class)
+                .returnType(String.class)
+                .executeAsync()
+                .get(5, TimeUnit.SECONDS);
+        assertThat(results).containsEntry(1, "a").containsEntry(2, "b");
+    }
+
+    @Test
+    public void testBatchError() {
+        JsonRpcClient client = asyncClient(request -> "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"a\"}," +
+                "{\"jsonrpc\":\"2.0\",\"id\":2,\"error\":{\"code\":-32602,\"message\":\"Invalid params\"}}]");
+        CompletableFuture<Map<Integer, String>> results = client.createBatchRequest()
+                .add(1, "letter", 0)
+                .add(2, "letter", -1)
+                .keysType(Integer.class)
+                .returnType(String.class)
+                .executeAsync();
+        assertThatThrownBy(() -> results.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(JsonRpcBatchException.class)
+                .satisfies(e -> {
+                    JsonRpcBatchException batchException = (JsonRpcBatchException) e.getCause();
+                    assertThat(batchException.getSuccesses().containsKey(1)).isTrue();
+                    assertThat(batchException.getErrors().containsKey(2)).isTrue();
+                });
+    }
+
+    @Test
+    public void testBlockingTransport() throws Exception {
+        JsonRpcClient client = new JsonRpcClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":true}");
+        CompletableFuture<Boolean> result = client.createRequest()
+                .method("update")
+                .id(1)
+                .returnAs(Boolean.class)
+                .executeAsync();
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.get()).isTrue();
+    }
+
+    @Test
+    public void testNotification() throws Exception {
+        List<String> requests = new ArrayList<>();
+        JsonRpcClient client = asyncClient(request -> {
+            requests.add(request);
+            return "";
+        });
+        client.createNotification()
+                .method("update")
+                .param("value", 1)
+                .executeAsync()
+                .get(5, TimeUnit.SECONDS);
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    public void testProxyFuture() throws Exception {
+        JsonRpcClient client = asyncClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":" +
+                "[{\"firstName\":\"Steven\",\"lastName\":\"Stamkos\",\"team\":{\"name\":\"Tampa Bay Lightning\"," +
+                "\"league\":\"NHL\"},\"number\":91,\"position\":\"C\",\"birthDate\":null,\"capHit\":7.5}]}");
+        List<Player> players = client.onDemand(AsyncTeamService.class)
+                .findByTeam("Tampa Bay Lightning")
+                .get(5, TimeUnit.SECONDS);
+        assertThat(players).hasSize(1);
+        assertThat(players.get(0).getLastName()).isEqualTo("Stamkos");
+    }
+
+    @Test
+    public void testProxyCompletionStage() throws Exception {
+        List<String> requests = new ArrayList<>();
+        JsonRpcClient client = asyncClient(request -> {
+            requests.add(request);
+            return "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":42}";
+        });
+        AsyncTeamService service = client.onDemand(AsyncTeamService.class);
+        assertThat(service.login("steven").toCompletableFuture().get(5, TimeUnit.SECONDS)).isEqualTo(42L);
+        assertThat(service.logout(42L).get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0)).contains("\"method\":\"login\"");
+    }
+
+    @Test
+    public void testProxyError() {
+        JsonRpcClient client = asyncClient(request -> "{\"jsonrpc\":\"2.0\",\"id\":1," +
+                "\"error\":{\"code\":-32000,\"message\":\"Wrong login\"}}");
+        CompletionStage<Long> token = client.onDemand(AsyncTeamService.class).login("steven");
+        assertThatThrownBy(() -> token.toCompletableFuture().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(JsonRpcException.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.arteam.simplejsonrpc.client;
+
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests passing requests and responses in UTF-8 without strings
+ */
+public class JsonRpcClientBinaryTest {
+
+    @JsonRpcService
+    public interface GreetingService {
+
+        @JsonRpcMethod
+        String greet(@JsonRpcParam("name") String name);
+    }
+
+    private static BinaryTransport binaryTransport(Function<String, String> backend) {
+        return new BinaryTransport() {
+            @NotNull
+            @Override
+            public byte[] exchange(@NotNull byte[] request) {
+                return backend.apply(new String(request, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @NotNull
+            @Override
+            public String pass(@NotNull String request) {
+                throw new AssertionError("Text requests should not be passed to a binary transport");
+            }
+        };
+    }
+
+    @Test
+    public void testRequest() {
+        JsonRpcClient client = new JsonRpcClient(binaryTransport(request -> {
+            assertThat(request).contains("\"Сергей\"");
+            return "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"Привет, Сергей\"}";
+        }));
+        String result = client.createRequest()
+                .method("greet")
+                .id(1)
+                .param("name", "Сергей")
+                .returnAs(String.class)
+                .execute();
+        assertThat(result).isEqualTo("Привет, Сергей");
+    }
+
+    @Test
+    public void testAsyncRequest() throws Exception {
+        JsonRpcClient client = new JsonRpcClient(binaryTransport(request ->
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":42}"));
+        Integer result = client.createRequest()
+                .method("answer")
+                .id(1)
+                .returnAs(Integer.class)
+                .executeAsync()
+                .get(5, TimeUnit.SECONDS);
+        assertThat(result).isEqualTo(42);
+    }
+
+    @Test
+    public void testBatch() {
+        JsonRpcClient client = new JsonRpcClient(binaryTransport(request ->
+                "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"a\"},{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"b\"}]"));
+        Map<Integer, String> result = client.createBatchRequest()
+                .add(1, "first")
+                .add(2, "second")
+                .keysType(Integer.class)
+                .returnType(String.class)
+                .execute();
+        assertThat(result).containsEntry(1, "a").containsEntry(2, "b");
+    }
+
+    @Test
+    public void testNotification() {
+        StringBuilder requests = new StringBuilder();
+        JsonRpcClient client = new JsonRpcClient(binaryTransport(request -> {
+            requests.append(request);
+            return "";
+        }));
+        client.createNotification()
+                .method("ping")
+                .execute();
+        assertThat(requests.toString()).contains("\"method\":\"ping\"").doesNotContain("\"id\"");
+    }
+
+    @Test
+    public void testProxy() {
+        JsonRpcClient client = new JsonRpcClient(binaryTransport(request ->
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"Привет, Сергей\"}"));
+        assertThat(client.onDemand(GreetingService.class).greet("Сергей")).isEqualTo("Привет, Сергей");
+    }
+
+    @Test
+    public void testTextTransportAdapter() throws IOException {
+        Transport textTransport = request -> request.replace("ping", "pong");
+        BinaryTransport adapter = BinaryTransport.of(textTransport);
+        assertThat(new String(adapter.exchange("\"ping\"".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8))
+                .isEqualTo("\"pong\"");
+        assertThat(adapter.pass("\"ping\"")).isEqualTo("\"pong\"");
+    }
+
+    @Test
+    public void testBinaryTransportIsNotAdapted() {
+        BinaryTransport transport = binaryTransport(request -> request);
+        assertThat(BinaryTransport.of(transport)).isSameAs(transport);
+    }
+}
@@ -1,11 +1,14 @@
 package com.github.arteam.simplejsonrpc.client;
 
 import com.github.arteam.simplejsonrpc.client.domain.Player;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
@@ -119,4 +122,28 @@ public class JsonRpcClientErrors {
                 .returnAs(Player.class)
                 .execute());
     }
+
+    @Test
+    public void testBadProtocolVersionAfterResult() {
+        client = new JsonRpcClient(request -> "{\"result\": {\"firstName\": \"Steven\"}, \"id\": 1001, " +
+                "\"jsonrpc\": \"1.0\"}");
+        assertThatIllegalStateException().isThrownBy(() -> client.createRequest()
+                .method("getPlayer")
+                .id(1001)
+                .returnAs(Player.class)
+                .execute())
+                .withMessageStartingWith("Bad protocol version");
+    }
+
+    @Test
+    public void testErrorBeforeVersion() {
+        client = new JsonRpcClient(request -> "{\"error\": {\"code\": -32601, \"message\": \"Method not found\"}, " +
+                "\"id\": 1001, \"jsonrpc\": \"2.0\"}");
+        assertThatExceptionOfType(JsonRpcException.class).isThrownBy(() -> client.createRequest()
+                .method("getPlayer")
+                .id(1001)
+                .returnAs(Player.class)
+                .execute())
+                .satisfies(e -> assertThat(e.getErrorMessage().getCode()).isEqualTo(-32601));
+    }
 }
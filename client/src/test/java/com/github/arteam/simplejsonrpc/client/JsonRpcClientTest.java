@@ -282,4 +282,75 @@ public class JsonRpcClientTest extends BaseClientTest {
             assertThat(errorMessage.getData()).isNotNull();
         }
     }
+
+    @Test
+    public void testAddPlayerMutable() {
+        JsonRpcClient client = initClient("add_player");
+        Boolean result = client.createRequest()
+                .returnAs(Boolean.class)
+                .mutable()
+                .id("asd671")
+                .method("add")
+                .param("player", new Player("Kevin", "Shattenkirk",
+                        new Team("St. Louis Blues", "NHL"), 22, Position.DEFENDER,
+                        ISODateTimeFormat.date().withZone(DateTimeZone.UTC).parseDateTime("1989-01-29").toDate(),
+                        4.25))
+                .execute();
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void findPlayerByInitialsMutable() throws Exception {
+        JsonRpcClient client = initClient("find_player");
+        Player player = client.createRequest()
+                .method("findByInitials")
+                .id(43121)
+                .param("firstName", "Steven")
+                .mutable()
+                .param("lastName", "Stamkos")
+                .returnAs(Player.class)
+                .executeAsync()
+                .get();
+        assertThat(player.getFirstName()).isEqualTo("Steven");
+        assertThat(player.getLastName()).isEqualTo("Stamkos");
+    }
+
+    @Test
+    public void testFindArrayMutable() {
+        JsonRpcClient client = initClient("find_player_array");
+        Player player = client.createRequest()
+                .params("Ben", "Bishop")
+                .mutable()
+                .method("findByInitials")
+                .id("dsfs1214")
+                .returnAs(Player.class)
+                .execute();
+        assertThat(player.getFirstName()).isEqualTo("Ben");
+        assertThat(player.getLastName()).isEqualTo("Bishop");
+    }
+
+    @Test
+    public void testMutableBothParams() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fakeClient().createRequest()
+                .mutable()
+                .method("find")
+                .id(1)
+                .param("firstName", "Steven")
+                .params("Steven", "Stamkos")
+                .execute(), "Both object and array params are set");
+    }
+
+    @Test
+    public void testResponseFieldsInAnyOrder() {
+        JsonRpcClient client = new JsonRpcClient(request -> "{\"result\": {\"firstName\": \"Steven\", " +
+                "\"lastName\": \"Stamkos\"}, \"extra\": [1, {\"a\": 2}], \"id\": 43121, \"jsonrpc\": \"2.0\"}");
+        Player player = client.createRequest()
+                .method("findByInitials")
+                .id(43121)
+                .params("Steven", "Stamkos")
+                .returnAs(Player.class)
+                .execute();
+        assertThat(player.getFirstName()).isEqualTo("Steven");
+        assertThat(player.getLastName()).isEqualTo("Stamkos");
+    }
 }
@@ -0,0 +1,41 @@
+package com.github.arteam.simplejsonrpc.client.builder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.client.object.TeamService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests caching of metadata of service interfaces
+ */
+public class ReflectionsTest {
+
+    @Test
+    public void testClassMetadataIsCached() {
+        assertThat(Reflections.getClassMetadata(TeamService.class))
+                .isSameAs(Reflections.getClassMetadata(TeamService.class));
+    }
+
+    @Test
+    public void testInvalidClassIsRejectedEveryTime() {
+        for (int i = 0; i < 2; i++) {
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> Reflections.getClassMetadata(Runnable.class))
+                    .withMessage("Class 'java.lang.Runnable' is not annotated as @JsonRpcService");
+        }
+    }
+
+    @Test
+    public void testMethodCodecIsCached() throws Exception {
+        MethodCodecs methodCodecs = new MethodCodecs(new ObjectMapper());
+        Method method = TeamService.class.getMethod("findByInitials", String.class, String.class);
+        MethodCodecs.Codec codec = methodCodecs.get(method);
+        assertThat(methodCodecs.get(method)).isSameAs(codec);
+        assertThat(codec.async).isFalse();
+        assertThat(codec.resultReader).isNotNull();
+    }
+}
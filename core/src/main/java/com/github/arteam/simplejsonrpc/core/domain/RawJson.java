@@ -0,0 +1,302 @@
+package com.github.arteam.simplejsonrpc.core.domain;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>Already rendered JSON value in UTF-8.</p>
+ * <p>A raw value is written as is, without being parsed and encoded again. It could be used as
+ * a method param, a method result or a part of them, if a service just forwards JSON.
+ * When it's read from a request, the server copies the value from the request bytes.</p>
+ * <p>The content is not validated, so it should be a single valid JSON value.</p>
+ */
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson implements JsonSerializable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @NotNull
+    private final byte[] bytes;
+
+    private final int offset;
+
+    private final int length;
+
+    private RawJson(@NotNull byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Wrong range: offset=" + offset + ", length=" + length +
+                    " in an array of size " + bytes.length);
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates a raw value from a JSON text
+     *
+     * @param json JSON value
+     * @return raw value
+     */
+    @NotNull
+    public static RawJson of(@NotNull String json) {
+        return wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a raw value from a copy of a range of JSON in UTF-8
+     *
+     * @param bytes  JSON in UTF-8
+     * @param offset start of the value
+     * @param length length of the value in bytes
+     * @return raw value
+     */
+    @NotNull
+    public static RawJson copyOf(@NotNull byte[] bytes, int offset, int length) {
+        return new RawJson(Arrays.copyOfRange(bytes, offset, offset + length), 0, length);
+    }
+
+    /**
+     * Creates a raw value backed by an array without copying it.
+     * The array should not be modified while the value is used.
+     *
+     * @param bytes JSON in UTF-8
+     * @return raw value
+     */
+    @NotNull
+    public static RawJson wrap(@NotNull byte[] bytes) {
+        return new RawJson(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Creates a raw value backed by a range of an array without copying it.
+     * The array should not be modified while the value is used.
+     *
+     * @param bytes  JSON in UTF-8
+     * @param offset start of the value
+     * @param length length of the value in bytes
+     * @return raw value
+     */
+    @NotNull
+    public static RawJson wrap(@NotNull byte[] bytes, int offset, int length) {
+        return new RawJson(bytes, offset, length);
+    }
+
+    /**
+     * @return length of the value in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return a copy of the value in UTF-8
+     */
+    @NotNull
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
+    /**
+     * Writes the value in UTF-8 to a stream
+     *
+     * @param output target stream
+     * @throws IOException if an I/O error happens during writing
+     */
+    public void writeTo(@NotNull OutputStream output) throws IOException {
+        output.write(bytes, offset, length);
+    }
+
+    /**
+     * Creates a parser over the value, which doesn't copy it
+     *
+     * @param factory JSON factory (e.g. of a mapper to bind the value to an object)
+     * @return new parser
+     * @throws IOException if the parser can't be created
+     */
+    @NotNull
+    public JsonParser createParser(@NotNull JsonFactory factory) throws IOException {
+        return factory.createParser(bytes, offset, length);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(new Utf8Value());
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers,
+                                  TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RawJson rawJson = (RawJson) o;
+        if (length != rawJson.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + i] != rawJson.bytes[rawJson.offset + i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + bytes[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unquoted view of the value for {@link JsonGenerator#writeRawValue(SerializableString)},
+     * so a UTF-8 generator copies the bytes as they are
+     */
+    private class Utf8Value implements SerializableString {
+
+        @Override
+        public String getValue() {
+            return RawJson.this.toString();
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return JsonStringEncoder.getInstance().quoteAsString(getValue());
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return offset == 0 && length == bytes.length ? bytes : toByteArray();
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return JsonStringEncoder.getInstance().quoteAsUTF8(getValue());
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return append(asQuotedUTF8(), buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            char[] quoted = asQuotedChars();
+            if (quoted.length > buffer.length - offset) {
+                return -1;
+            }
+            System.arraycopy(quoted, 0, buffer, offset, quoted.length);
+            return quoted.length;
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (length > buffer.length - offset) {
+                return -1;
+            }
+            System.arraycopy(bytes, RawJson.this.offset, buffer, offset, length);
+            return length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            if (value.length() > buffer.length - offset) {
+                return -1;
+            }
+            value.getChars(0, value.length(), buffer, offset);
+            return value.length();
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            byte[] quoted = asQuotedUTF8();
+            out.write(quoted);
+            return quoted.length;
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            byte[] quoted = asQuotedUTF8();
+            if (quoted.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(quoted);
+            return quoted.length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(bytes, offset, length);
+            return length;
+        }
+
+        private int append(byte[] value, byte[] buffer, int offset) {
+            if (value.length > buffer.length - offset) {
+                return -1;
+            }
+            System.arraycopy(value, 0, buffer, offset, value.length);
+            return value.length;
+        }
+    }
+
+    /**
+     * Copies the current value of a parser as it is. If the parser reads a tree
+     * which already holds a raw value, the value is reused.
+     */
+    public static class Deserializer extends JsonDeserializer<RawJson> {
+
+        @Override
+        public RawJson deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_EMBEDDED_OBJECT && p.getEmbeddedObject() instanceof RawJson) {
+                return (RawJson) p.getEmbeddedObject();
+            }
+            ByteArrayBuilder builder = new ByteArrayBuilder();
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(builder)) {
+                generator.copyCurrentStructure(p);
+            }
+            return wrap(builder.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.arteam.simplejsonrpc.server;
+
+/**
+ * A param, which is bound while the method runs, can't be read to the parameter type.
+ * If it's thrown from the method, the server responds with "Invalid params".
+ */
+class InvalidParamException extends IllegalArgumentException {
+
+    InvalidParamException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,20 +1,27 @@
 package com.github.arteam.simplejsonrpc.server;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ContainerNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ValueNode;
+import com.fasterxml.jackson.databind.util.ClassUtil;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcError;
 import com.github.arteam.simplejsonrpc.core.domain.*;
 import com.github.arteam.simplejsonrpc.server.metadata.ClassMetadata;
 import com.github.arteam.simplejsonrpc.server.metadata.ErrorDataResolver;
 import com.github.arteam.simplejsonrpc.server.metadata.MethodMetadata;
+import com.github.arteam.simplejsonrpc.server.metadata.ParameterBinding;
 import com.github.arteam.simplejsonrpc.server.metadata.ParameterMetadata;
+import com.github.arteam.simplejsonrpc.server.metadata.ScalarType;
 import com.google.common.base.Defaults;
 import com.google.common.base.Function;
 import com.google.common.base.Strings;
@@ -23,15 +30,29 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheBuilderSpec;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
 
 /**
  * Date: 07.06.14
@@ -60,9 +81,24 @@ public class JsonRpcServer {
     private static final Logger log = LoggerFactory.getLogger(JsonRpcServer.class);
     private static final String VERSION = "2.0";
 
+    private static final ContainerNode<?> EMPTY_PARAMS = JsonNodeFactory.instance.objectNode();
+    private static final Object[] EMPTY_METHOD_PARAMS = new Object[0];
+    private static final byte[] EMPTY_RESPONSE = new byte[0];
+
+    private static final int MAX_POOLED_PARAMS = 16;
+
+    /**
+     * Arrays for method arguments by their size, reused on the same thread
+     */
+    private static final ThreadLocal<Object[][]> METHOD_PARAMS_POOL =
+            ThreadLocal.withInitial(() -> new Object[MAX_POOLED_PARAMS][]);
+
     @NotNull
     private ObjectMapper mapper;
 
+    @NotNull
+    private final RequestReader requestReader;
+
     /**
      * Default Cache params specification
      */
@@ -77,6 +113,11 @@ public class JsonRpcServer {
      */
     private LoadingCache<Class<? extends Throwable>, ErrorDataResolver> dataResolvers;
 
+    /**
+     * Whether the mapper uses a standard Jackson serializer for a scalar result class
+     */
+    private final ConcurrentMap<Class<?>, Boolean> scalarSerializers = new ConcurrentHashMap<>();
+
     /**
      * Init JSON-RPC server
      *
@@ -85,11 +126,12 @@ public class JsonRpcServer {
      */
     public JsonRpcServer(@NotNull ObjectMapper mapper, @NotNull CacheBuilderSpec cacheBuilderSpec) {
         this.mapper = mapper;
+        this.requestReader = new RequestReader(mapper);
         classesMetadata = CacheBuilder.from(cacheBuilderSpec).build(
                 new CacheLoader<Class<?>, ClassMetadata>() {
                     @Override
                     public ClassMetadata load(Class<?> clazz) throws Exception {
-                        return Reflections.getClassMetadata(clazz);
+                        return Reflections.getClassMetadata(clazz, mapper);
                     }
                 });
         dataResolvers = CacheBuilder.from(cacheBuilderSpec).build(
@@ -131,6 +173,9 @@ public class JsonRpcServer {
     /**
      * Handles a JSON-RPC request(single or batch),
      * delegates processing to the service, and returns a JSON-RPC response.
+     * The request is encoded to UTF-8 once, so objects and arrays inside params are kept
+     * as spans of the bytes and not parsed to a tree before binding. It costs a copy of the request,
+     * which {@link #handle(byte[], Object)} avoids.
      *
      * @param textRequest text representation of a JSON-RPC request
      * @param service     actual service for the request processing
@@ -138,35 +183,177 @@ public class JsonRpcServer {
      */
     @NotNull
     public String handle(@NotNull String textRequest, @NotNull Object service) {
-        JsonNode rootRequest;
+        Object response = handleRequest(textRequest.getBytes(StandardCharsets.UTF_8), service);
+        return response != null ? toJson(response) : "";
+    }
+
+    /**
+     * Handles a JSON-RPC request(single or batch) in UTF-8 bytes,
+     * delegates processing to the service, and returns a JSON-RPC response.
+     * The response is serialized to a buffer recycled by the current thread.
+     * If a result fails to serialize, the response to its request is replaced by an internal error.
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @param service actual service for the request processing
+     * @return JSON-RPC response in UTF-8 or an empty array if there is no response
+     */
+    @NotNull
+    public byte[] handle(@NotNull byte[] request, @NotNull Object service) {
+        Object response = handleRequest(request, service);
+        if (response == null) {
+            return EMPTY_RESPONSE;
+        }
+        ResponseBuffer buffer = ResponseBuffer.acquire();
         try {
-            rootRequest = mapper.readTree(textRequest);
-            if (log.isDebugEnabled()) {
-                log.debug("Request : {}", mapper.writeValueAsString(rootRequest));
-            }
+            writeJson(buffer, response);
+            return buffer.toByteArray();
         } catch (IOException e) {
-            log.error("Bad json request", e);
-            return toJson(new ErrorResponse(PARSE_ERROR));
+            // Not expected, because the buffer is in memory
+            throw new IllegalStateException(e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Handles a JSON-RPC request(single or batch) from an input stream,
+     * delegates processing to the service, and writes a JSON-RPC response in UTF-8
+     * to an output stream. The request is parsed as it's read, so it's not buffered in memory,
+     * but objects and arrays inside params are read to trees. So an array bound to a {@link Stream}
+     * or {@link java.util.Iterator} param is kept in memory as a whole before the method gets its first
+     * element. Use {@link #handle(byte[], OutputStream, Object)} to bind params straight from the request
+     * bytes, if the size of the request is bounded.
+     * <p>The response is serialized to a buffer recycled by the current thread and written with one call.
+     * If a result fails to serialize, the response to its request is replaced by an internal error.
+     * A response larger than the buffer limit of 256 KB (e.g. a long stream of elements) is written through
+     * to the stream as it's serialized, so it's not kept in memory. After a part of the response has been
+     * written through, it can't be replaced anymore: if a result fails then, the output is left truncated
+     * and an {@link IllegalStateException} is thrown, so the transport should drop the connection.</p>
+     * <p>Nothing is written if there is no response (e.g. for a notification).
+     * The streams are not closed.</p>
+     *
+     * @param input   JSON-RPC request
+     * @param output  stream for a JSON-RPC response
+     * @param service actual service for the request processing
+     * @return {@code true} if a response has been written
+     * @throws IOException           if an I/O error happens during reading the request or writing the response
+     * @throws IllegalStateException if a result fails to serialize after a part of the response has been written
+     */
+    public boolean handle(@NotNull InputStream input, @NotNull OutputStream output,
+                          @NotNull Object service) throws IOException {
+        Object response;
+        try {
+            response = handleRequest(requestReader.read(input), service);
+        } catch (JsonProcessingException e) {
+            response = parseError(e);
+        }
+        return respond(output, response);
+    }
+
+    /**
+     * Handles a JSON-RPC request(single or batch) in UTF-8 bytes,
+     * delegates processing to the service, and writes a JSON-RPC response in UTF-8
+     * to an output stream. Objects and arrays inside params are bound straight from the request bytes,
+     * so an array bound to a {@link Stream} or {@link java.util.Iterator} param is read element by element.
+     * The response is written like by {@link #handle(InputStream, OutputStream, Object)}.
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @param output  stream for a JSON-RPC response
+     * @param service actual service for the request processing
+     * @return {@code true} if a response has been written
+     * @throws IOException           if an I/O error happens during writing the response
+     * @throws IllegalStateException if a result fails to serialize after a part of the response has been written
+     */
+    public boolean handle(@NotNull byte[] request, @NotNull OutputStream output,
+                          @NotNull Object service) throws IOException {
+        return respond(output, handleRequest(request, service));
+    }
+
+    /**
+     * Writes a response through a buffer recycled by the current thread
+     *
+     * @param output   stream for a JSON-RPC response
+     * @param response a response, a list of responses for a batch or {@code null}
+     * @return {@code true} if a response has been written
+     * @throws IOException if an I/O error happens during writing
+     */
+    private boolean respond(@NotNull OutputStream output, @Nullable Object response) throws IOException {
+        if (response == null) {
+            return false;
+        }
+        ResponseBuffer buffer = ResponseBuffer.acquire(output);
+        try {
+            writeJson(buffer, response);
+            buffer.writeTo(output);
+            return true;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Reads a JSON-RPC request(single or batch) and delegates processing to the service.
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @param service actual service for the request processing
+     * @return a response, a list of responses for a batch or
+     * {@code null} if there is no response to return
+     */
+    @Nullable
+    private Object handleRequest(@NotNull byte[] request, @NotNull Object service) {
+        try {
+            return handleRequest(requestReader.read(request), service);
+        } catch (IOException e) {
+            return parseError(e);
+        }
+    }
+
+    @NotNull
+    private static ErrorResponse parseError(@NotNull IOException e) {
+        log.error("Bad json request", e);
+        return new ErrorResponse(PARSE_ERROR);
+    }
+
+    /**
+     * Delegates processing of a read JSON-RPC request(single or batch) to the service.
+     *
+     * @param rootRequest JSON-RPC request as a JSON tree
+     * @param service     actual service for the request processing
+     * @return a response, a list of responses for a batch or
+     * {@code null} if there is no response to return
+     * @throws JsonProcessingException if the request can't be logged
+     */
+    @Nullable
+    private Object handleRequest(@NotNull JsonNode rootRequest, @NotNull Object service)
+            throws JsonProcessingException {
+        if (log.isDebugEnabled()) {
+            log.debug("Request : {}", mapper.writeValueAsString(rootRequest));
         }
 
         // Check if a single request or a batch
         if (rootRequest.isObject()) {
             Response response = handleWrapper(rootRequest, service);
-            return isNotification(rootRequest, response) ? "" : toJson(response);
+            if (isNotification(rootRequest, response)) {
+                closeResult(response);
+                return null;
+            }
+            return response;
         } else if (rootRequest.isArray() && rootRequest.size() > 0) {
-            ArrayNode responses = mapper.createArrayNode();
-            for (JsonNode request : (ArrayNode) rootRequest) {
-                Response response = handleWrapper(request, service);
-                if (!isNotification(request, response)) {
-                    responses.add(mapper.convertValue(response, ObjectNode.class));
+            List<Response> responses = new ArrayList<>(rootRequest.size());
+            for (JsonNode requestNode : (ArrayNode) rootRequest) {
+                Response response = handleWrapper(requestNode, service);
+                if (!isNotification(requestNode, response)) {
+                    responses.add(response);
+                } else {
+                    closeResult(response);
                 }
             }
 
-            return responses.size() > 0 ? toJson(responses) : "";
+            return !responses.isEmpty() ? responses : null;
         }
 
         log.error("Invalid JSON-RPC request: " + rootRequest);
-        return toJson(new ErrorResponse(INVALID_REQUEST));
+        return new ErrorResponse(INVALID_REQUEST);
     }
 
     /**
@@ -206,7 +393,15 @@ public class JsonRpcServer {
     private Response handleWrapper(@NotNull JsonNode requestNode, @NotNull Object service) {
         Request request;
         try {
-            request = mapper.convertValue(requestNode, Request.class);
+            request = readRequest(requestNode);
+            if (request == null) {
+                request = mapper.convertValue(requestNode, Request.class);
+                // Keep the original params, because they could hold raw values
+                JsonNode params = requestNode.get("params");
+                if (params != null) {
+                    request = new Request(request.getJsonrpc(), request.getMethod(), params, request.getId());
+                }
+            }
         } catch (Exception e) {
             log.error("Invalid JSON-RPC request: " + requestNode, e);
             return new ErrorResponse(INVALID_REQUEST);
@@ -221,6 +416,34 @@ public class JsonRpcServer {
         }
     }
 
+    /**
+     * Reads a request from a JSON tree without the mapper in the common case when all the fields
+     * are known and have the expected types. Otherwise the request is left to the mapper, so it
+     * applies its coercion rules and reports invalid requests.
+     *
+     * @param requestNode JSON-RPC request as a JSON tree
+     * @return JSON-RPC request as a Java object or {@code null} if it should be converted by the mapper
+     */
+    @Nullable
+    private static Request readRequest(@NotNull JsonNode requestNode) {
+        JsonNode jsonrpc = requestNode.get("jsonrpc");
+        JsonNode method = requestNode.get("method");
+        JsonNode params = requestNode.get("params");
+        JsonNode id = requestNode.get("id");
+        int knownFields = (jsonrpc != null ? 1 : 0) + (method != null ? 1 : 0) +
+                (params != null ? 1 : 0) + (id != null ? 1 : 0);
+        if (knownFields != requestNode.size()
+                || jsonrpc != null && !jsonrpc.isTextual()
+                || method != null && !method.isTextual()
+                || id != null && !id.isValueNode()) {
+            return null;
+        }
+        return new Request(jsonrpc != null ? jsonrpc.textValue() : null,
+                method != null ? method.textValue() : null,
+                params != null ? params : NullNode.getInstance(),
+                id != null ? (ValueNode) id : NullNode.getInstance());
+    }
+
     /**
      * Handles a runtime exception. If root exception is marked with {@link JsonRpcError} annotation,
      * it will be converted to appropriate error message.
@@ -302,29 +525,122 @@ public class JsonRpcServer {
         }
 
         ContainerNode<?> notNullParams = !params.isNull() ?
-                (ContainerNode<?>) params : mapper.createObjectNode();
-        Object[] methodParams;
+                (ContainerNode<?>) params : EMPTY_PARAMS;
+        Object[] methodParams = methodParams(method.getParams().size());
         try {
-            methodParams = convertToMethodParams(notNullParams, method);
-        } catch (IllegalArgumentException e) {
-            log.error("Bad params: " + notNullParams + " of a method '" + method.getName() + "'", e);
-            return new ErrorResponse(id, INVALID_PARAMS);
+            try {
+                convertToMethodParams(notNullParams, method, methodParams);
+            } catch (IllegalArgumentException e) {
+                log.error("Bad params: " + notNullParams + " of a method '" + method.getName() + "'", e);
+                releaseParams(deferredParams(methodParams));
+                return new ErrorResponse(id, INVALID_PARAMS);
+            }
+
+            // The pooled array could be reused by a nested request, so deferred params are kept apart
+            List<Object> deferredParams = deferredParams(methodParams);
+            Object result;
+            try {
+                result = (Object) method.getInvoker().invokeExact(service, methodParams);
+            } catch (InvalidParamException e) {
+                log.error("Bad params: " + notNullParams + " of a method '" + method.getName() + "'", e);
+                return new ErrorResponse(id, INVALID_PARAMS);
+            } catch (Exception e) {
+                throw e;
+            } catch (Throwable e) {
+                // Keep the reflection semantics for errors thrown by the method
+                throw new InvocationTargetException(e);
+            } finally {
+                releaseParams(deferredParams);
+            }
+            return new SuccessResponse(id, result);
+        } finally {
+            // Don't retain the arguments in the pooled array
+            Arrays.fill(methodParams, null);
+        }
+    }
+
+    /**
+     * Gets an array for method arguments from a per-thread pool.
+     * The arguments are spread by the method handle before the method starts,
+     * so the array is free again as soon as the method is invoked. That makes
+     * the array safe to reuse even if the method handles another request
+     * on the same thread. A virtual thread gets a new array, because it usually handles
+     * a single request, and the pool would be allocated for nothing.
+     *
+     * @param size amount of method arguments
+     * @return an array of the requested size
+     */
+    @NotNull
+    private static Object[] methodParams(int size) {
+        if (size == 0) {
+            return EMPTY_METHOD_PARAMS;
+        }
+        if (size >= MAX_POOLED_PARAMS || VirtualThreads.isCurrent()) {
+            return new Object[size];
+        }
+        Object[][] pool = METHOD_PARAMS_POOL.get();
+        Object[] methodParams = pool[size];
+        if (methodParams == null) {
+            methodParams = new Object[size];
+            pool[size] = methodParams;
+        }
+        return methodParams;
+    }
+
+    /**
+     * Gets lazy and streaming params, which refer to the request and should be released
+     * after the method is invoked. A {@link Stream} param is always a streaming one,
+     * because the mapper doesn't bind streams.
+     *
+     * @param methodParams method arguments
+     * @return deferred params or {@code null} if there are none
+     */
+    @Nullable
+    private static List<Object> deferredParams(@NotNull Object[] methodParams) {
+        List<Object> deferredParams = null;
+        for (Object methodParam : methodParams) {
+            if (methodParam instanceof LazyParam || methodParam instanceof StreamingParam ||
+                    methodParam instanceof Stream) {
+                if (deferredParams == null) {
+                    deferredParams = new ArrayList<>(methodParams.length);
+                }
+                deferredParams.add(methodParam);
+            }
         }
+        return deferredParams;
+    }
 
-        Object result = method.getMethod().invoke(service, methodParams);
-        return new SuccessResponse(id, result);
+    /**
+     * Detaches lazy params from the request and closes streaming params with their parsers
+     *
+     * @param deferredParams deferred params or {@code null}
+     */
+    private static void releaseParams(@Nullable List<Object> deferredParams) {
+        if (deferredParams == null) {
+            return;
+        }
+        for (Object deferredParam : deferredParams) {
+            if (deferredParam instanceof LazyParam) {
+                ((LazyParam) deferredParam).detach();
+                continue;
+            }
+            try {
+                ((AutoCloseable) deferredParam).close();
+            } catch (Exception e) {
+                log.warn("Unable to close a streaming param", e);
+            }
+        }
     }
 
     /**
      * Converts JSON params to java params in the appropriate order of the invoked method
      *
-     * @param params json params (map or array)
-     * @param method invoked method metadata
-     * @return array of java objects for passing to the method
+     * @param params       json params (map or array)
+     * @param method       invoked method metadata
+     * @param methodParams array of java objects for passing to the method
      */
-    @NotNull
-    private Object[] convertToMethodParams(@NotNull ContainerNode<?> params,
-                                           @NotNull MethodMetadata method) {
+    private void convertToMethodParams(@NotNull ContainerNode<?> params, @NotNull MethodMetadata method,
+                                       @NotNull Object[] methodParams) {
         int methodParamsSize = method.getParams().size();
         int jsonParamsSize = params.size();
         // Check amount arguments
@@ -333,9 +649,10 @@ public class JsonRpcServer {
                     " for a method '" + method.getName() + "'. Actual amount: " + methodParamsSize);
         }
 
-        Object[] methodParams = new Object[methodParamsSize];
         int processed = 0;
-        for (ParameterMetadata param : method.getParams().values()) {
+        ImmutableList<ParameterMetadata> paramsList = method.getParamsList();
+        for (int i = 0; i < methodParamsSize; i++) {
+            ParameterMetadata param = paramsList.get(i);
             Class<?> parameterType = param.getType();
             int index = param.getIndex();
             String name = param.getName();
@@ -343,7 +660,12 @@ public class JsonRpcServer {
             // Handle omitted value
             if (jsonNode == null || jsonNode.isNull()) {
                 if (param.isOptional()) {
-                    methodParams[index] = getDefaultValue(parameterType);
+                    if (param.getBinding() == ParameterBinding.LAZY) {
+                        Object defaultValue = getDefaultValue(param.getJavaType().getRawClass());
+                        methodParams[index] = (Supplier<Object>) () -> defaultValue;
+                    } else {
+                        methodParams[index] = getDefaultValue(parameterType);
+                    }
                     if (jsonNode != null) {
                         processed++;
                     }
@@ -354,11 +676,34 @@ public class JsonRpcServer {
                 }
             }
 
+            ParameterBinding binding = param.getBinding();
+            if (binding != ParameterBinding.VALUE) {
+                methodParams[index] = bindLater(binding, param, jsonNode);
+                processed++;
+                continue;
+            }
+
+            // Primitives and strings are read directly from the node if it has the exact type
+            ScalarType scalarType = param.getScalarType();
+            Object value = scalarType != null ? scalarType.read(jsonNode) : null;
+            if (value != null) {
+                methodParams[index] = value;
+                processed++;
+                continue;
+            }
+
+            if (parameterType == RawJson.class) {
+                // Copy raw JSON from the request, because the request bytes are not retained
+                RawJson rawValue = RequestReader.rawValue(jsonNode);
+                methodParams[index] = rawValue != null ?
+                        RawJson.wrap(rawValue.toByteArray()) : RawJson.of(jsonNode.toString());
+                processed++;
+                continue;
+            }
+
             // Convert JSON object to an actual Java object
-            try {
-                JsonParser jsonParser = mapper.treeAsTokens(jsonNode);
-                JavaType javaType = mapper.getTypeFactory().constructType(param.getGenericType());
-                methodParams[index] = mapper.readValue(jsonParser, javaType);
+            try (JsonParser jsonParser = requestReader.createParser(jsonNode)) {
+                methodParams[index] = mapper.readValue(jsonParser, param.getJavaType());
                 processed++;
             } catch (IOException e) {
                 throw new IllegalArgumentException("Wrong param: " + jsonNode + ". Expected type: '" + param, e);
@@ -370,8 +715,29 @@ public class JsonRpcServer {
             throw new IllegalArgumentException("Some unspecified parameters in " + params +
                     " are passed to a method '" + method.getName() + "'");
         }
+    }
 
-        return methodParams;
+    /**
+     * Creates a parameter which binds the param while the method runs
+     *
+     * @param binding  parameter binding
+     * @param param    parameter metadata
+     * @param jsonNode param node
+     * @return lazy or streaming parameter
+     */
+    @NotNull
+    private Object bindLater(@NotNull ParameterBinding binding, @NotNull ParameterMetadata param,
+                             @NotNull JsonNode jsonNode) {
+        if (binding == ParameterBinding.LAZY) {
+            return new LazyParam(requestReader, mapper, param, jsonNode);
+        }
+        try {
+            return binding == ParameterBinding.ITERATOR ?
+                    StreamingParam.iterator(requestReader, mapper, param, jsonNode) :
+                    StreamingParam.stream(requestReader, mapper, param, jsonNode);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Wrong param: " + jsonNode + ". Expected an array of '" + param, e);
+        }
     }
 
     @Nullable
@@ -382,6 +748,10 @@ public class JsonRpcServer {
         } else if (type == java.util.Optional.class) {
             // If it's Java optional then handle it as an absent value
             return java.util.Optional.empty();
+        } else if (type == Iterator.class) {
+            return Collections.emptyIterator();
+        } else if (type == Stream.class) {
+            return Stream.empty();
         } else if (type.isPrimitive()) {
             // If parameter is a primitive set the appropriate default value
             return Defaults.defaultValue(type);
@@ -390,22 +760,199 @@ public class JsonRpcServer {
     }
 
     /**
-     * Utility method for converting an object to JSON that doesn't throws an unchecked exception
+     * Utility method for converting a response or a list of responses to JSON
+     * that doesn't throws an unchecked exception
      *
      * @param value object
      * @return JSON representation
      */
     @NotNull
     private String toJson(@NotNull Object value) {
-        try {
-            String response = mapper.writeValueAsString(value);
-            if (log.isDebugEnabled()) {
-                log.debug("Response: {}", response);
-            }
-            return response;
-        } catch (JsonProcessingException e) {
+        SegmentedStringWriter writer = new SegmentedStringWriter(mapper.getFactory()._getBufferRecycler());
+        try (JsonGenerator generator = mapper.createGenerator(writer)) {
+            writeValue(generator, value);
+        } catch (IOException e) {
             log.error("Unable write json: " + value, e);
             throw new IllegalStateException(e);
         }
+        String response = writer.getAndClear();
+        if (log.isDebugEnabled()) {
+            log.debug("Response: {}", response);
+        }
+        return response;
+    }
+
+    /**
+     * Writes a response or a list of responses to a buffer in UTF-8. Every response is written
+     * by its own generator, so a response, which fails to serialize, is discarded and replaced
+     * by an internal error with the same id, unless a part of it has been already written through
+     * to the output stream of the buffer.
+     *
+     * @param buffer response buffer
+     * @param value  object
+     * @throws IOException           if the buffer fails to write through to its output stream
+     * @throws IllegalStateException if a response fails after a part of it has been written through
+     */
+    private void writeJson(@NotNull ResponseBuffer buffer, @NotNull Object value) throws IOException {
+        try {
+            if (value instanceof List) {
+                List<?> responses = (List<?>) value;
+                buffer.write('[');
+                for (int i = 0; i < responses.size(); i++) {
+                    if (i > 0) {
+                        buffer.write(',');
+                    }
+                    writeResponse(buffer, (Response) responses.get(i));
+                }
+                buffer.write(']');
+            } else {
+                writeResponse(buffer, (Response) value);
+            }
+        } finally {
+            closeResults(value);
+        }
+        if (log.isDebugEnabled() && !buffer.isSpilled()) {
+            log.debug("Response: {}", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeResponse(@NotNull ResponseBuffer buffer, @NotNull Response response) throws IOException {
+        long position = buffer.position();
+        try (JsonGenerator generator = mapper.createGenerator(buffer, JsonEncoding.UTF8)) {
+            writeResponse(generator, response);
+        } catch (JsonProcessingException | RuntimeException e) {
+            if (!buffer.truncate(position)) {
+                log.error("Unable write json after a part of it has been written: " + response, e);
+                throw new IllegalStateException(e);
+            }
+            log.error("Unable write json: " + response, e);
+            try (JsonGenerator generator = mapper.createGenerator(buffer, JsonEncoding.UTF8)) {
+                writeResponse(generator, new ErrorResponse(response.getId(), INTERNAL_ERROR));
+            }
+        }
+    }
+
+    private void writeValue(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+        try {
+            if (value instanceof List) {
+                generator.writeStartArray();
+                for (Object response : (List<?>) value) {
+                    writeResponse(generator, (Response) response);
+                }
+                generator.writeEndArray();
+            } else {
+                writeResponse(generator, (Response) value);
+            }
+        } finally {
+            closeResults(value);
+        }
+    }
+
+    /**
+     * Closes streams and closeable iterators returned by methods, after they have been written
+     * or if the responses are discarded
+     *
+     * @param value a response or a list of responses
+     */
+    private static void closeResults(@NotNull Object value) {
+        if (value instanceof List) {
+            for (Object response : (List<?>) value) {
+                closeResult((Response) response);
+            }
+        } else {
+            closeResult((Response) value);
+        }
+    }
+
+    private static void closeResult(@NotNull Response response) {
+        if (!(response instanceof SuccessResponse)) {
+            return;
+        }
+        Object result = ((SuccessResponse) response).getResult();
+        if (result instanceof BaseStream || result instanceof Iterator && result instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) result).close();
+            } catch (Exception e) {
+                log.warn("Unable to close a result of a method", e);
+            }
+        }
+    }
+
+    /**
+     * Writes a response to a generator. A successful response with a primitive or string result
+     * is written directly in the same form as the mapper would produce,
+     * but without the bean serialization. Elements of a stream result are written as they are produced.
+     *
+     * @param generator JSON generator
+     * @param response  JSON-RPC response
+     * @throws IOException in case of a generator error
+     */
+    private void writeResponse(@NotNull JsonGenerator generator, @NotNull Response response) throws IOException {
+        Object result = response instanceof SuccessResponse ? ((SuccessResponse) response).getResult() : null;
+        if (result instanceof BaseStream) {
+            // The mapper writes elements of an iterator one by one, so the stream is never collected
+            mapper.writeValue(generator, new SuccessResponse(response.getId(), ((BaseStream<?, ?>) result).iterator()));
+            return;
+        }
+        ScalarType resultType = getScalarResultType(result);
+        if (resultType == null) {
+            mapper.writeValue(generator, response);
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName("id");
+        writeId(generator, response.getId());
+        generator.writeFieldName("result");
+        resultType.write(generator, ((SuccessResponse) response).getResult());
+        generator.writeStringField("jsonrpc", response.getJsonrpc());
+        generator.writeEndObject();
+    }
+
+    private static void writeId(@NotNull JsonGenerator generator, @NotNull ValueNode id) throws IOException {
+        if (id.isTextual()) {
+            generator.writeString(id.textValue());
+        } else if (id.isInt()) {
+            generator.writeNumber(id.intValue());
+        } else if (id.isLong()) {
+            generator.writeNumber(id.longValue());
+        } else if (id.isNull()) {
+            generator.writeNull();
+        } else {
+            generator.writeTree(id);
+        }
+    }
+
+    /**
+     * Gets a scalar type of a method result, if it could be written without the mapper
+     *
+     * @param result method result
+     * @return scalar type or {@code null} if the result should be serialized by the mapper
+     */
+    @Nullable
+    private ScalarType getScalarResultType(@Nullable Object result) {
+        if (result == null) {
+            return null;
+        }
+        Class<?> resultClass = result.getClass();
+        ScalarType scalarType = ScalarType.of(resultClass);
+        if (scalarType == null) {
+            return null;
+        }
+        Boolean standard = scalarSerializers.get(resultClass);
+        if (standard == null) {
+            standard = isStandardSerializer(resultClass);
+            scalarSerializers.put(resultClass, standard);
+        }
+        return standard ? scalarType : null;
+    }
+
+    private boolean isStandardSerializer(@NotNull Class<?> clazz) {
+        try {
+            JsonSerializer<Object> serializer = mapper.getSerializerProviderInstance().findValueSerializer(clazz);
+            return ClassUtil.isJacksonStdImpl(serializer);
+        } catch (Exception e) {
+            log.warn("Unable to find a serializer for " + clazz, e);
+            return false;
+        }
     }
 }
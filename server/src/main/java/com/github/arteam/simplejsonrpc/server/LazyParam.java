@@ -0,0 +1,71 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.github.arteam.simplejsonrpc.core.domain.RawJson;
+import com.github.arteam.simplejsonrpc.server.metadata.ParameterMetadata;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * <p>Lazy method parameter, which binds a param on the first access.</p>
+ * <p>The param is kept as it's read from the request, usually as raw bytes of the request,
+ * so a method which doesn't access it skips the deserialization entirely. If the param can't be
+ * bound, {@link InvalidParamException} is thrown and the server responds with "Invalid params".</p>
+ */
+class LazyParam implements Supplier<Object> {
+
+    @NotNull
+    private final RequestReader requestReader;
+
+    @NotNull
+    private final ObjectMapper mapper;
+
+    @NotNull
+    private final ParameterMetadata param;
+
+    @Nullable
+    private JsonNode node;
+
+    @Nullable
+    private Object value;
+
+    LazyParam(@NotNull RequestReader requestReader, @NotNull ObjectMapper mapper,
+              @NotNull ParameterMetadata param, @NotNull JsonNode node) {
+        this.requestReader = requestReader;
+        this.mapper = mapper;
+        this.param = param;
+        this.node = node;
+    }
+
+    @Override
+    public synchronized Object get() {
+        if (node != null) {
+            try (JsonParser jsonParser = requestReader.createParser(node)) {
+                value = mapper.readValue(jsonParser, param.getJavaType());
+            } catch (IOException e) {
+                throw new InvalidParamException("Wrong param: " + node + ". Expected type: '" + param, e);
+            }
+            node = null;
+        }
+        return value;
+    }
+
+    /**
+     * Copies the raw param, if it's still not bound, so it doesn't refer to the request
+     * bytes after the method returns
+     */
+    synchronized void detach() {
+        if (node != null) {
+            RawJson rawValue = RequestReader.rawValue(node);
+            if (rawValue != null) {
+                node = new POJONode(RawJson.wrap(rawValue.toByteArray()));
+            }
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.github.arteam.simplejsonrpc.server;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.util.ClassUtil;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcErrorData;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcOptional;
@@ -8,7 +13,9 @@ import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
 import com.github.arteam.simplejsonrpc.server.metadata.ClassMetadata;
 import com.github.arteam.simplejsonrpc.server.metadata.ErrorDataResolver;
 import com.github.arteam.simplejsonrpc.server.metadata.MethodMetadata;
+import com.github.arteam.simplejsonrpc.server.metadata.ParameterBinding;
 import com.github.arteam.simplejsonrpc.server.metadata.ParameterMetadata;
+import com.github.arteam.simplejsonrpc.server.metadata.ScalarType;
 import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -16,6 +23,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.Optional;
 
@@ -58,11 +68,12 @@ class Reflections {
      * Gets class metadata for JSON-RPC processing.
      * It scans the class and builds JSON-RPC meta-information about methods and it's parameters
      *
-     * @param clazz actual service class
+     * @param clazz  actual service class
+     * @param mapper JSON mapper which will bind the methods parameters
      * @return service class JSON-RPC meta-information
      */
     @NotNull
-    public static ClassMetadata getClassMetadata(@NotNull Class<?> clazz) {
+    public static ClassMetadata getClassMetadata(@NotNull Class<?> clazz, @NotNull ObjectMapper mapper) {
         ImmutableMap.Builder<String, MethodMetadata> methodsMetadata = ImmutableMap.builder();
 
         Class<?> searchType = clazz;
@@ -88,14 +99,15 @@ class Reflections {
                 }
 
                 String rpcMethodName = !jsonRpcMethod.value().isEmpty() ? jsonRpcMethod.value() : methodName;
-                ImmutableMap<String, ParameterMetadata> methodParams = getMethodParameters(method);
+                ImmutableMap<String, ParameterMetadata> methodParams = getMethodParameters(method, mapper);
                 if (methodParams == null) {
                     log.warn("Method '" + methodName + "' has misconfigured parameters");
                     continue;
                 }
 
                 method.setAccessible(true);
-                methodsMetadata.put(rpcMethodName, new MethodMetadata(rpcMethodName, method, methodParams));
+                methodsMetadata.put(rpcMethodName, new MethodMetadata(rpcMethodName, method, getInvoker(method),
+                        methodParams));
             }
             searchType = searchType.getSuperclass();
         }
@@ -113,10 +125,12 @@ class Reflections {
      * Gets JSON-RPC meta-information about method parameters.
      *
      * @param method actual method
+     * @param mapper JSON mapper which will bind the parameters
      * @return map of parameters metadata by their names
      */
     @Nullable
-    private static ImmutableMap<String, ParameterMetadata> getMethodParameters(@NotNull Method method) {
+    private static ImmutableMap<String, ParameterMetadata> getMethodParameters(@NotNull Method method,
+                                                                               @NotNull ObjectMapper mapper) {
         Annotation[][] allParametersAnnotations = method.getParameterAnnotations();
         int methodParamsSize = allParametersAnnotations.length;
         Class<?>[] parameterTypes = method.getParameterTypes();
@@ -134,8 +148,14 @@ class Reflections {
 
             String paramName = jsonRpcParam.value();
             boolean optional = Reflections.getAnnotation(parameterAnnotations, JsonRpcOptional.class) != null;
+            JavaType javaType = mapper.getTypeFactory().constructType(genericParameterTypes[i]);
+            ParameterBinding binding = ParameterBinding.of(javaType);
+            if (binding != ParameterBinding.VALUE) {
+                javaType = javaType.containedTypeOrUnknown(0);
+            }
+            ScalarType scalarType = binding == ParameterBinding.VALUE ? getScalarType(javaType, mapper) : null;
             parametersMetadata.put(paramName, new ParameterMetadata(paramName, parameterTypes[i],
-                    genericParameterTypes[i], i, optional));
+                    genericParameterTypes[i], javaType, scalarType, binding, i, optional));
         }
 
         try {
@@ -147,6 +167,52 @@ class Reflections {
         }
     }
 
+    /**
+     * Creates a handle which spreads an array of arguments to the method.
+     * It's adapted to the generic {@code (Object, Object[])Object} type once,
+     * so the call site could use {@link MethodHandle#invokeExact}.
+     *
+     * @param method accessible method
+     * @return handle to the method
+     */
+    @NotNull
+    private static MethodHandle getInvoker(@NotNull Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                    .asFixedArity()
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access method '" + method.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Gets a scalar type of a parameter. The type is available only if the mapper
+     * uses a standard Jackson deserializer for it, so custom deserializers registered
+     * by a user are always respected.
+     *
+     * @param javaType parameter type
+     * @param mapper   JSON mapper
+     * @return scalar type or {@code null} if the parameter should be bound by the mapper
+     */
+    @Nullable
+    private static ScalarType getScalarType(@NotNull JavaType javaType, @NotNull ObjectMapper mapper) {
+        ScalarType scalarType = ScalarType.of(javaType.getRawClass());
+        if (scalarType == null) {
+            return null;
+        }
+        try {
+            JsonDeserializer<Object> deserializer = ((DefaultDeserializationContext) mapper.getDeserializationContext())
+                    .createDummyInstance(mapper.getDeserializationConfig())
+                    .findRootValueDeserializer(javaType);
+            return ClassUtil.isJacksonStdImpl(deserializer) ? scalarType : null;
+        } catch (Exception e) {
+            log.warn("Unable to find a deserializer for " + javaType, e);
+            return null;
+        }
+    }
+
     static ErrorDataResolver buildErrorDataResolver(Class<? extends Throwable> throwableClass) {
         Class<?> c = throwableClass;
         Field dataField = null;
@@ -0,0 +1,240 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.github.arteam.simplejsonrpc.core.domain.RawJson;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>Reads JSON-RPC requests in UTF-8 to a JSON tree.</p>
+ * <p>The tree is the same as the mapper would read, except for objects and arrays inside
+ * request params. They are not parsed to a tree, but kept as {@link RawJson} spans of the
+ * request bytes in POJO nodes. Such a param is parsed straight from the request bytes when
+ * it's bound to a method parameter, or just copied if the method accepts raw JSON.</p>
+ * <p>A request from an input stream is parsed as it's read, without buffering the whole request.
+ * There are no request bytes to refer to, so objects and arrays inside params are read to a tree.</p>
+ */
+class RequestReader {
+
+    private static final String PARAMS = "params";
+
+    @NotNull
+    private final ObjectMapper mapper;
+
+    RequestReader(@NotNull ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Gets the raw value of a param node, if the param hasn't been parsed to a tree
+     *
+     * @param node param node
+     * @return raw value or {@code null} if the node is a regular tree
+     */
+    @Nullable
+    static RawJson rawValue(@NotNull JsonNode node) {
+        if (node instanceof POJONode) {
+            Object pojo = ((POJONode) node).getPojo();
+            if (pojo instanceof RawJson) {
+                return (RawJson) pojo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a parser over a param node, which reads a raw param straight from the request bytes
+     *
+     * @param node param node
+     * @return new parser
+     * @throws IOException if the parser can't be created
+     */
+    @NotNull
+    JsonParser createParser(@NotNull JsonNode node) throws IOException {
+        RawJson rawValue = rawValue(node);
+        return rawValue != null ? rawValue.createParser(mapper.getFactory()) : mapper.treeAsTokens(node);
+    }
+
+    /**
+     * Reads a single request or a batch
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return request tree or a missing node if the request is empty
+     * @throws IOException if the request is not a valid JSON
+     */
+    @NotNull
+    JsonNode read(@NotNull byte[] request) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(request)) {
+            return read(parser, request);
+        }
+    }
+
+    /**
+     * Reads a single request or a batch from a stream. The stream is not closed.
+     *
+     * @param input JSON-RPC request
+     * @return request tree or a missing node if the request is empty
+     * @throws IOException if the request is not a valid JSON or it can't be read
+     */
+    @NotNull
+    JsonNode read(@NotNull InputStream input) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return read(parser, null);
+        }
+    }
+
+    @NotNull
+    private JsonNode read(@NotNull JsonParser parser, @Nullable byte[] request) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return mapper.getNodeFactory().missingNode();
+        }
+        JsonNode rootRequest;
+        if (token == JsonToken.START_OBJECT) {
+            rootRequest = readRequest(parser, request);
+        } else if (token == JsonToken.START_ARRAY) {
+            ArrayNode batch = mapper.getNodeFactory().arrayNode();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                batch.add(parser.currentToken() == JsonToken.START_OBJECT ?
+                        readRequest(parser, request) : readValue(parser));
+            }
+            rootRequest = batch;
+        } else {
+            rootRequest = readValue(parser);
+        }
+        if (mapper.isEnabled(DeserializationFeature.FAIL_ON_TRAILING_TOKENS) && parser.nextToken() != null) {
+            throw JsonMappingException.from(parser, "Trailing token (of type " + parser.currentToken() +
+                    ") found after the request");
+        }
+        return rootRequest;
+    }
+
+    @NotNull
+    private ObjectNode readRequest(@NotNull JsonParser parser, @Nullable byte[] request) throws IOException {
+        ObjectNode requestNode = mapper.getNodeFactory().objectNode();
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            JsonNode value = fieldName.equals(PARAMS) && token.isStructStart() ?
+                    readParams(parser, request) : readValue(parser);
+            putField(parser, requestNode, fieldName, value);
+        }
+        return requestNode;
+    }
+
+    @NotNull
+    private ContainerNode<?> readParams(@NotNull JsonParser parser, @Nullable byte[] request) throws IOException {
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            ArrayNode params = mapper.getNodeFactory().arrayNode();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                params.add(readParam(parser, request));
+            }
+            return params;
+        }
+        ObjectNode params = mapper.getNodeFactory().objectNode();
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            putField(parser, params, fieldName, readParam(parser, request));
+        }
+        return params;
+    }
+
+    @NotNull
+    private JsonNode readParam(@NotNull JsonParser parser, @Nullable byte[] request) throws IOException {
+        if (!parser.currentToken().isStructStart()) {
+            return readValue(parser);
+        }
+        long start = parser.getTokenLocation().getByteOffset();
+        if (request == null || start < 0) {
+            // A streamed or not a UTF-8 request, so there are no bytes to refer to
+            return mapper.readTree(parser);
+        }
+        parser.skipChildren();
+        long end = parser.getCurrentLocation().getByteOffset();
+        return mapper.getNodeFactory().pojoNode(RawJson.wrap(request, (int) start, (int) (end - start)));
+    }
+
+    private void putField(@NotNull JsonParser parser, @NotNull ObjectNode node,
+                          @NotNull String fieldName, @NotNull JsonNode value) throws IOException {
+        JsonNode oldValue = node.replace(fieldName, value);
+        if (oldValue != null && mapper.isEnabled(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY)) {
+            throw JsonMappingException.from(parser, "Duplicate field '" + fieldName + "' for an object node");
+        }
+    }
+
+    /**
+     * Reads the current value like the mapper does, but creates scalar nodes
+     * without a deserialization context.
+     */
+    @NotNull
+    private JsonNode readValue(@NotNull JsonParser parser) throws IOException {
+        JsonNodeFactory nodeFactory = mapper.getNodeFactory();
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return nodeFactory.textNode(parser.getText());
+            case VALUE_NUMBER_INT:
+                return readInt(parser, nodeFactory);
+            case VALUE_NUMBER_FLOAT:
+                return readFloat(parser, nodeFactory);
+            case VALUE_TRUE:
+                return nodeFactory.booleanNode(true);
+            case VALUE_FALSE:
+                return nodeFactory.booleanNode(false);
+            case VALUE_NULL:
+                return nodeFactory.nullNode();
+            default:
+                return mapper.readTree(parser);
+        }
+    }
+
+    @NotNull
+    private JsonNode readInt(@NotNull JsonParser parser, @NotNull JsonNodeFactory nodeFactory) throws IOException {
+        DeserializationConfig config = mapper.getDeserializationConfig();
+        JsonParser.NumberType numberType;
+        if (config.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)) {
+            numberType = JsonParser.NumberType.BIG_INTEGER;
+        } else if (config.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS)) {
+            numberType = JsonParser.NumberType.LONG;
+        } else {
+            numberType = parser.getNumberType();
+        }
+        if (numberType == JsonParser.NumberType.INT) {
+            return nodeFactory.numberNode(parser.getIntValue());
+        } else if (numberType == JsonParser.NumberType.LONG) {
+            return nodeFactory.numberNode(parser.getLongValue());
+        }
+        return nodeFactory.numberNode(parser.getBigIntegerValue());
+    }
+
+    @NotNull
+    private JsonNode readFloat(@NotNull JsonParser parser, @NotNull JsonNodeFactory nodeFactory) throws IOException {
+        JsonParser.NumberType numberType = parser.getNumberType();
+        if (numberType == JsonParser.NumberType.BIG_DECIMAL) {
+            return nodeFactory.numberNode(parser.getDecimalValue());
+        }
+        if (mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+            return parser.isNaN() ? nodeFactory.numberNode(parser.getDoubleValue()) :
+                    nodeFactory.numberNode(parser.getDecimalValue());
+        }
+        if (numberType == JsonParser.NumberType.FLOAT) {
+            return nodeFactory.numberNode(parser.getFloatValue());
+        }
+        return nodeFactory.numberNode(parser.getDoubleValue());
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * <p>Growable byte buffer for serializing responses, recycled per thread.</p>
+ * <p>The buffer keeps its capacity between requests, so responses of a similar size
+ * don't allocate a new buffer every time. If a spike of a large response grows it above
+ * {@link #MAX_RETAINED_SIZE}, it's trimmed back to the initial size on release,
+ * so the thread doesn't hold the memory forever.</p>
+ * <p>A virtual thread usually handles a single request, so a buffer in its thread local would never
+ * be reused. Virtual threads take buffers from a small shared pool instead, which is sized
+ * by the amount of processors, because that many virtual threads run at the same time by default.</p>
+ * <p>A buffer acquired for an output stream doesn't grow above {@link #MAX_RETAINED_SIZE}.
+ * When a response reaches the limit (e.g. a method returns a large stream of elements), the buffered
+ * content is flushed to the stream and the rest of the response is written through,
+ * so the memory stays bounded. Content which hasn't been written through yet could be discarded,
+ * e.g. to replace a response, which failed to serialize.</p>
+ */
+class ResponseBuffer extends OutputStream {
+
+    static final int INITIAL_SIZE = 8 * 1024;
+    static final int MAX_RETAINED_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<ResponseBuffer> BUFFERS = ThreadLocal.withInitial(ResponseBuffer::new);
+
+    /**
+     * Buffers released by virtual threads
+     */
+    private static final BlockingQueue<ResponseBuffer> SHARED_BUFFERS =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    @NotNull
+    private byte[] buffer = new byte[INITIAL_SIZE];
+
+    private int size;
+
+    @Nullable
+    private OutputStream output;
+
+    /**
+     * Number of bytes written through to the output stream
+     */
+    private long spilledBytes;
+
+    private boolean inUse;
+
+    /**
+     * Whether the buffer is returned to the shared pool on release
+     */
+    private final boolean shared;
+
+    private ResponseBuffer() {
+        this(false);
+    }
+
+    private ResponseBuffer(boolean shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Gets the buffer of the current thread. If it's already in use
+     * (a service method handles a nested request), a new buffer is created.
+     * A virtual thread gets a buffer from the shared pool.
+     *
+     * @return an empty buffer
+     */
+    @NotNull
+    static ResponseBuffer acquire() {
+        if (VirtualThreads.isCurrent()) {
+            return acquireShared();
+        }
+        ResponseBuffer responseBuffer = BUFFERS.get();
+        if (responseBuffer.inUse) {
+            return new ResponseBuffer();
+        }
+        responseBuffer.inUse = true;
+        return responseBuffer;
+    }
+
+    /**
+     * Gets a buffer from the shared pool or creates a new one, if the pool is empty
+     *
+     * @return an empty buffer
+     */
+    @NotNull
+    static ResponseBuffer acquireShared() {
+        ResponseBuffer responseBuffer = SHARED_BUFFERS.poll();
+        if (responseBuffer == null) {
+            responseBuffer = new ResponseBuffer(true);
+        }
+        responseBuffer.inUse = true;
+        return responseBuffer;
+    }
+
+    /**
+     * Gets the buffer of the current thread, which flushes a large response to an output stream
+     *
+     * @param output target stream
+     * @return an empty buffer
+     */
+    @NotNull
+    static ResponseBuffer acquire(@NotNull OutputStream output) {
+        ResponseBuffer responseBuffer = acquire();
+        responseBuffer.output = output;
+        return responseBuffer;
+    }
+
+    /**
+     * Resets the buffer for the next response and trims it, if it has grown too large
+     */
+    void release() {
+        size = 0;
+        output = null;
+        spilledBytes = 0;
+        inUse = false;
+        if (buffer.length > MAX_RETAINED_SIZE) {
+            buffer = new byte[INITIAL_SIZE];
+        }
+        if (shared) {
+            // Dropped, if the pool is full
+            SHARED_BUFFERS.offer(this);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (output != null && size == MAX_RETAINED_SIZE) {
+            spill();
+        }
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        if (output != null && size + len > MAX_RETAINED_SIZE) {
+            spill();
+            if (len > MAX_RETAINED_SIZE) {
+                output.write(b, off, len);
+                spilledBytes += len;
+                return;
+            }
+        }
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, buffer, size, len);
+        size += len;
+    }
+
+    private void spill() throws IOException {
+        output.write(buffer, 0, size);
+        spilledBytes += size;
+        size = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+
+    /**
+     * Writes the buffered content to an output stream
+     *
+     * @param output target stream
+     * @throws IOException if an I/O error happens during writing
+     */
+    void writeTo(@NotNull OutputStream output) throws IOException {
+        output.write(buffer, 0, size);
+    }
+
+    @NotNull
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * @return whether a part of the content has been already written to the output stream
+     */
+    boolean isSpilled() {
+        return spilledBytes > 0;
+    }
+
+    /**
+     * @return position of the next byte in the whole response, including the content written through
+     */
+    long position() {
+        return spilledBytes + size;
+    }
+
+    /**
+     * Discards the content after a position, if it hasn't been written through to the output stream
+     *
+     * @param position position in the whole response
+     * @return {@code false} if a part of the content after the position has been already written through
+     */
+    boolean truncate(long position) {
+        if (position < spilledBytes) {
+            return false;
+        }
+        size = (int) (position - spilledBytes);
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+}
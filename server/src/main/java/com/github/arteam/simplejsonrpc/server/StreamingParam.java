@@ -0,0 +1,130 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.server.metadata.ParameterMetadata;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Iterator over elements of an array param, which binds an element when the method asks for it.</p>
+ * <p>The array is read straight from the request bytes, so only the current element is kept
+ * in memory instead of the whole array as a tree and a list. The param is valid only while
+ * the method runs: the server closes it with its parser after the invocation, so it can't be
+ * returned as a part of a lazy result. If an element can't be bound, {@link InvalidParamException} is thrown
+ * and the server responds with "Invalid params".</p>
+ */
+class StreamingParam implements Iterator<Object>, AutoCloseable {
+
+    /**
+     * Parser over the array, owned by the param. {@link #iterator} closes it if the param
+     * can't be created, and {@link #close()} closes it after the invocation.
+     */
+    @NotNull
+    private final JsonParser parser;
+
+    @NotNull
+    private final MappingIterator<Object> values;
+
+    @NotNull
+    private final ParameterMetadata param;
+
+    private StreamingParam(@NotNull JsonParser parser, @NotNull MappingIterator<Object> values,
+                           @NotNull ParameterMetadata param) {
+        this.parser = parser;
+        this.values = values;
+        this.param = param;
+    }
+
+    /**
+     * Creates an iterator over an array param
+     *
+     * @param requestReader reader of the request
+     * @param mapper        JSON mapper
+     * @param param         parameter metadata with the element type
+     * @param node          param node
+     * @return new iterator
+     * @throws IOException if the param is not an array
+     */
+    @NotNull
+    static StreamingParam iterator(@NotNull RequestReader requestReader, @NotNull ObjectMapper mapper,
+                                   @NotNull ParameterMetadata param, @NotNull JsonNode node) throws IOException {
+        JsonParser parser = requestReader.createParser(node);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Param '" + param.getName() + "' should be an array");
+        }
+        // The iterator reads values from the next token until the end of the array
+        parser.clearCurrentToken();
+        try {
+            return new StreamingParam(parser, mapper.readerFor(param.getJavaType()).readValues(parser), param);
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a sequential stream over an array param
+     *
+     * @param requestReader reader of the request
+     * @param mapper        JSON mapper
+     * @param param         parameter metadata with the element type
+     * @param node          param node
+     * @return new stream
+     * @throws IOException if the param is not an array
+     */
+    @NotNull
+    static Stream<Object> stream(@NotNull RequestReader requestReader, @NotNull ObjectMapper mapper,
+                                 @NotNull ParameterMetadata param, @NotNull JsonNode node) throws IOException {
+        StreamingParam iterator = iterator(requestReader, mapper, param, node);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return values.hasNextValue();
+        } catch (IOException e) {
+            throw new InvalidParamException("Wrong element of param '" + param.getName() +
+                    "'. Expected type: '" + param.getJavaType() + "'", e);
+        }
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return values.nextValue();
+        } catch (IOException e) {
+            throw new InvalidParamException("Wrong element of param '" + param.getName() +
+                    "'. Expected type: '" + param.getJavaType() + "'", e);
+        }
+    }
+
+    /**
+     * Closes the iterator and releases the parser with its buffers
+     */
+    @Override
+    public void close() {
+        try {
+            values.close();
+            parser.close();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
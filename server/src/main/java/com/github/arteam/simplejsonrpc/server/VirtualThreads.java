@@ -0,0 +1,48 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * <p>Detects virtual threads, which are available since Java 21.</p>
+ * <p>A virtual thread usually handles a single request and exits, so objects cached in its
+ * thread locals are never reused. Pools which are keyed by threads should skip them.</p>
+ */
+class VirtualThreads {
+
+    /**
+     * {@code Thread.isVirtual()}, looked up reflectively, because the server is built for Java 8
+     */
+    @Nullable
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return whether the current thread is virtual
+     */
+    static boolean isCurrent() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to check if the thread is virtual", e);
+        }
+    }
+
+    @Nullable
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+                    MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
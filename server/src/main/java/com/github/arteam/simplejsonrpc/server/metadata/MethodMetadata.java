@@ -1,9 +1,11 @@
 package com.github.arteam.simplejsonrpc.server.metadata;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 
 /**
@@ -25,17 +27,31 @@ public class MethodMetadata {
     @NotNull
     private final Method method;
 
+    /**
+     * Handle to the method with the {@code (Object, Object[])Object} type
+     */
+    @NotNull
+    private final MethodHandle invoker;
+
     /**
      * Map of method params by RPC name
      */
     @NotNull
     private final ImmutableMap<String, ParameterMetadata> params;
 
-    public MethodMetadata(@NotNull String name, @NotNull Method method,
+    /**
+     * List of method params in the order of the method arguments
+     */
+    @NotNull
+    private final ImmutableList<ParameterMetadata> paramsList;
+
+    public MethodMetadata(@NotNull String name, @NotNull Method method, @NotNull MethodHandle invoker,
                           @NotNull ImmutableMap<String, ParameterMetadata> params) {
         this.name = name;
         this.method = method;
+        this.invoker = invoker;
         this.params = params;
+        this.paramsList = params.values().asList();
     }
 
     @NotNull
@@ -48,11 +64,21 @@ public class MethodMetadata {
         return method;
     }
 
+    @NotNull
+    public MethodHandle getInvoker() {
+        return invoker;
+    }
+
     @NotNull
     public ImmutableMap<String, ParameterMetadata> getParams() {
         return params;
     }
 
+    @NotNull
+    public ImmutableList<ParameterMetadata> getParamsList() {
+        return paramsList;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -0,0 +1,56 @@
+package com.github.arteam.simplejsonrpc.server.metadata;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * How a JSON param is passed to a method parameter
+ */
+public enum ParameterBinding {
+
+    /**
+     * The param is bound to the parameter type before the method is invoked
+     */
+    VALUE,
+
+    /**
+     * The parameter is a {@link Supplier}, which binds the param to the type argument
+     * on the first access. If the method doesn't access it, the param is not parsed at all.
+     */
+    LAZY,
+
+    /**
+     * The parameter is an {@link Iterator} over an array param, which binds elements
+     * to the type argument one by one
+     */
+    ITERATOR,
+
+    /**
+     * The parameter is a {@link Stream} over an array param, which binds elements
+     * to the type argument one by one
+     */
+    STREAM;
+
+    /**
+     * Finds a binding for a parameter type
+     *
+     * @param javaType parameter type
+     * @return the binding
+     */
+    @NotNull
+    public static ParameterBinding of(@NotNull JavaType javaType) {
+        Class<?> type = javaType.getRawClass();
+        if (type == Supplier.class) {
+            return LAZY;
+        } else if (type == Iterator.class) {
+            return ITERATOR;
+        } else if (type == Stream.class) {
+            return STREAM;
+        }
+        return VALUE;
+    }
+}
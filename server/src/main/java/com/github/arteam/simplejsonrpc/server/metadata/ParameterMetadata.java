@@ -1,7 +1,9 @@
 package com.github.arteam.simplejsonrpc.server.metadata;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.google.common.base.MoreObjects;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Type;
 
@@ -30,6 +32,25 @@ public class ParameterMetadata {
     @NotNull
     private final Type genericType;
 
+    /**
+     * Jackson representation of the type which the param is bound to.
+     * It's the generic type or its type argument for a lazy parameter.
+     */
+    @NotNull
+    private final JavaType javaType;
+
+    /**
+     * Scalar type, if the parameter could be bound without Jackson databind
+     */
+    @Nullable
+    private final ScalarType scalarType;
+
+    /**
+     * How the param is passed to the method
+     */
+    @NotNull
+    private final ParameterBinding binding;
+
     /**
      * Index in method arguments
      */
@@ -40,11 +61,15 @@ public class ParameterMetadata {
      */
     private final boolean optional;
 
-    public ParameterMetadata(@NotNull String name, @NotNull Class<?> type
-            , @NotNull Type genericType, int index, boolean optional) {
+    public ParameterMetadata(@NotNull String name, @NotNull Class<?> type, @NotNull Type genericType,
+                             @NotNull JavaType javaType, @Nullable ScalarType scalarType,
+                             @NotNull ParameterBinding binding, int index, boolean optional) {
         this.name = name;
         this.type = type;
         this.genericType = genericType;
+        this.javaType = javaType;
+        this.scalarType = scalarType;
+        this.binding = binding;
         this.index = index;
         this.optional = optional;
     }
@@ -72,12 +97,29 @@ public class ParameterMetadata {
         return genericType;
     }
 
+    @NotNull
+    public JavaType getJavaType() {
+        return javaType;
+    }
+
+    @Nullable
+    public ScalarType getScalarType() {
+        return scalarType;
+    }
+
+    @NotNull
+    public ParameterBinding getBinding() {
+        return binding;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("name", name)
                 .add("type", type)
                 .add("genericType", genericType)
+                .add("scalarType", scalarType)
+                .add("binding", binding)
                 .add("index", index)
                 .add("optional", optional)
                 .toString();
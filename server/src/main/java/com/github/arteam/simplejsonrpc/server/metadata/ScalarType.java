@@ -0,0 +1,135 @@
+package com.github.arteam.simplejsonrpc.server.metadata;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.primitives.Primitives;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Primitive and string types which could be read from a JSON node and written to
+ * a JSON generator directly without going through Jackson databind.
+ * <p>A type reads only a node which exactly matches it. Other nodes (e.g. a string for
+ * a numeric parameter) are left to the mapper, so its coercion rules and error
+ * reporting stay the same.</p>
+ */
+public enum ScalarType {
+
+    BOOLEAN {
+        @Nullable
+        @Override
+        public Object read(@NotNull JsonNode node) {
+            return node.isBoolean() ? node.booleanValue() : null;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+            generator.writeBoolean((Boolean) value);
+        }
+    },
+    INT {
+        @Nullable
+        @Override
+        public Object read(@NotNull JsonNode node) {
+            return node.isIntegralNumber() && node.canConvertToInt() ? node.intValue() : null;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+            generator.writeNumber((Integer) value);
+        }
+    },
+    LONG {
+        @Nullable
+        @Override
+        public Object read(@NotNull JsonNode node) {
+            return node.isIntegralNumber() && node.canConvertToLong() ? node.longValue() : null;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+            generator.writeNumber((Long) value);
+        }
+    },
+    FLOAT {
+        @Nullable
+        @Override
+        public Object read(@NotNull JsonNode node) {
+            return node.isFloatingPointNumber() ? node.floatValue() : null;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+            generator.writeNumber((Float) value);
+        }
+    },
+    DOUBLE {
+        @Nullable
+        @Override
+        public Object read(@NotNull JsonNode node) {
+            return node.isFloatingPointNumber() ? node.doubleValue() : null;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+            generator.writeNumber((Double) value);
+        }
+    },
+    STRING {
+        @Nullable
+        @Override
+        public Object read(@NotNull JsonNode node) {
+            return node.textValue();
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException {
+            generator.writeString((String) value);
+        }
+    };
+
+    /**
+     * Reads a value from a JSON node
+     *
+     * @param node JSON value
+     * @return the value or {@code null} if the node doesn't match the type
+     */
+    @Nullable
+    public abstract Object read(@NotNull JsonNode node);
+
+    /**
+     * Writes a value of the type to a JSON generator
+     *
+     * @param generator JSON generator
+     * @param value     boxed value of the type
+     * @throws IOException if an I/O error happens during writing
+     */
+    public abstract void write(@NotNull JsonGenerator generator, @NotNull Object value) throws IOException;
+
+    /**
+     * Finds a scalar type for a Java class
+     *
+     * @param clazz primitive, wrapper or string class
+     * @return the matching type or {@code null} if the class is not a scalar
+     */
+    @Nullable
+    public static ScalarType of(@NotNull Class<?> clazz) {
+        Class<?> type = Primitives.unwrap(clazz);
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == String.class) {
+            return STRING;
+        }
+        return null;
+    }
+}
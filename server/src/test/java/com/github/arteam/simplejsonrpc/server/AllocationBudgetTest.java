@@ -0,0 +1,54 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import com.github.arteam.simplejsonrpc.server.spec.CalculatorService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that a single request for a method with primitive params
+ * stays within a budget of allocated bytes.
+ */
+public class AllocationBudgetTest {
+
+    /**
+     * The path allocates about 1.6 KB per request, mostly in the Jackson parser,
+     * the request tree and the response string.
+     */
+    private static final long BUDGET_BYTES = 2048;
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private static final String REQUEST = "{\"jsonrpc\":\"2.0\",\"method\":\"subtract\",\"params\":[42,23],\"id\":1}";
+
+    private JsonRpcServer rpcServer = new JsonRpcServer();
+    private CalculatorService calculatorService = new CalculatorService();
+
+    @Test
+    public void testSingleRequest() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported() &&
+                allocationMXBean.isThreadAllocatedMemoryEnabled());
+
+        assertThat(rpcServer.handle(REQUEST, calculatorService)).isEqualTo("{\"id\":1,\"result\":19,\"jsonrpc\":\"2.0\"}");
+        for (int i = 0; i < WARMUP; i++) {
+            rpcServer.handle(REQUEST, calculatorService);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            rpcServer.handle(REQUEST, calculatorService);
+        }
+        long perRequest = (allocationMXBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+
+        assertThat(perRequest).as("allocated bytes per request").isLessThanOrEqualTo(BUDGET_BYTES);
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseBufferTest {
+
+    @Test
+    public void testRecycled() throws Exception {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        buffer.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8), 0, 8);
+        assertThat(new String(buffer.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        buffer.release();
+
+        ResponseBuffer next = ResponseBuffer.acquire();
+        assertThat(next).isSameAs(buffer);
+        assertThat(next.size()).isZero();
+        next.release();
+    }
+
+    @Test
+    public void testSharedRecycled() {
+        ResponseBuffer buffer = ResponseBuffer.acquireShared();
+        ResponseBuffer concurrent = ResponseBuffer.acquireShared();
+        assertThat(concurrent).isNotSameAs(buffer);
+        concurrent.release();
+        buffer.release();
+
+        ResponseBuffer next = ResponseBuffer.acquireShared();
+        assertThat(next).isIn(buffer, concurrent);
+        assertThat(next.size()).isZero();
+        next.release();
+    }
+
+    @Test
+    public void testNestedAcquire() {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            ResponseBuffer nested = ResponseBuffer.acquire();
+            assertThat(nested).isNotSameAs(buffer);
+            nested.release();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    public void testTrimAfterSpike() throws Exception {
+        byte[] large = new byte[ResponseBuffer.MAX_RETAINED_SIZE + 1];
+        Arrays.fill(large, (byte) 'a');
+
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        buffer.write(large, 0, large.length);
+        buffer.write('b');
+        assertThat(buffer.size()).isEqualTo(large.length + 1);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        buffer.writeTo(output);
+        assertThat(output.size()).isEqualTo(large.length + 1);
+        buffer.release();
+
+        ResponseBuffer next = ResponseBuffer.acquire();
+        assertThat(next.capacity()).isEqualTo(ResponseBuffer.INITIAL_SIZE);
+        next.release();
+    }
+
+    @Test
+    public void testSpillToOutput() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1000];
+        Arrays.fill(chunk, (byte) 'a');
+
+        ResponseBuffer buffer = ResponseBuffer.acquire(output);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                buffer.write(chunk, 0, chunk.length);
+            }
+            assertThat(buffer.isSpilled()).isTrue();
+            assertThat(buffer.capacity()).isLessThanOrEqualTo(ResponseBuffer.MAX_RETAINED_SIZE);
+            buffer.writeTo(output);
+        } finally {
+            buffer.release();
+        }
+        assertThat(output.size()).isEqualTo(1000 * chunk.length);
+    }
+
+    @Test
+    public void testTruncate() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1000];
+        Arrays.fill(chunk, (byte) 'a');
+
+        ResponseBuffer buffer = ResponseBuffer.acquire(output);
+        try {
+            buffer.write(chunk, 0, chunk.length);
+            long position = buffer.position();
+            buffer.write(chunk, 0, chunk.length);
+            assertThat(buffer.truncate(position)).isTrue();
+            assertThat(buffer.position()).isEqualTo(chunk.length);
+
+            for (int i = 0; i < 1000; i++) {
+                buffer.write(chunk, 0, chunk.length);
+            }
+            assertThat(buffer.truncate(position)).isFalse();
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests methods which return streams and iterators
+ */
+public class StreamResultTest {
+
+    private JsonRpcServer rpcServer = new JsonRpcServer();
+    private ExportService exportService = new ExportService();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @JsonRpcService
+    public static class ExportService {
+
+        private final AtomicInteger closedStreams = new AtomicInteger();
+
+        @JsonRpcMethod
+        public Stream<String> rows(@JsonRpcParam("count") int count) {
+            return IntStream.range(0, count)
+                    .mapToObj(i -> "row-" + i)
+                    .onClose(closedStreams::incrementAndGet);
+        }
+
+        @JsonRpcMethod
+        public Stream<String> failingRows(@JsonRpcParam("count") int count) {
+            return IntStream.range(0, count + 1)
+                    .mapToObj(i -> {
+                        if (i == count) {
+                            throw new IllegalArgumentException("Row " + i + " is broken");
+                        }
+                        return "row-" + i;
+                    })
+                    .onClose(closedStreams::incrementAndGet);
+        }
+
+        @JsonRpcMethod
+        public Iterator<Integer> numbers(@JsonRpcParam("count") int count) {
+            return IntStream.range(0, count).iterator();
+        }
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        String response = rpcServer.handle(request("rows", 3, "1"), exportService);
+        assertThat(mapper.readTree(response)).isEqualTo(mapper.readTree(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[\"row-0\",\"row-1\",\"row-2\"]}"));
+        assertThat(exportService.closedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        String response = rpcServer.handle(request("numbers", 3, "1"), exportService);
+        assertThat(mapper.readTree(response)).isEqualTo(mapper.readTree(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[0,1,2]}"));
+    }
+
+    @Test
+    public void testStreamIsClosedForNotification() {
+        assertThat(rpcServer.handle(request("rows", 3, null), exportService)).isEmpty();
+        assertThat(exportService.closedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLargeStreamIsWrittenThrough() throws Exception {
+        int count = 100_000;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] request = request("rows", count, "1").getBytes(StandardCharsets.UTF_8);
+        assertThat(rpcServer.handle(new ByteArrayInputStream(request), output, exportService)).isTrue();
+
+        JsonNode result = mapper.readTree(output.toByteArray()).get("result");
+        assertThat(result.size()).isEqualTo(count);
+        assertThat(result.get(count - 1).asText()).isEqualTo("row-" + (count - 1));
+        assertThat(exportService.closedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedStreamIsInternalError() throws Exception {
+        byte[] request = request("failingRows", 3, "1").getBytes(StandardCharsets.UTF_8);
+        byte[] response = rpcServer.handle(request, exportService);
+        assertThat(mapper.readTree(response)).isEqualTo(mapper.readTree(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32603,\"message\":\"Internal error\"}}"));
+        assertThat(exportService.closedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedStreamInBatch() throws Exception {
+        String request = "[" + request("rows", 2, "1") + "," + request("failingRows", 2, "2") + "," +
+                request("numbers", 2, "3") + "]";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThat(rpcServer.handle(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)),
+                output, exportService)).isTrue();
+        assertThat(mapper.readTree(output.toByteArray())).isEqualTo(mapper.readTree("[" +
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[\"row-0\",\"row-1\"]}," +
+                "{\"jsonrpc\":\"2.0\",\"id\":2,\"error\":{\"code\":-32603,\"message\":\"Internal error\"}}," +
+                "{\"jsonrpc\":\"2.0\",\"id\":3,\"result\":[0,1]}]"));
+    }
+
+    @Test
+    public void testLargeFailedStreamIsTruncated() {
+        int count = 100_000;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] request = request("failingRows", count, "1").getBytes(StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> rpcServer.handle(new ByteArrayInputStream(request), output, exportService))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(output.size()).isGreaterThan(0);
+        assertThat(exportService.closedStreams.get()).isEqualTo(1);
+    }
+
+    private static String request(String method, int count, String id) {
+        return "{\"jsonrpc\":\"2.0\",\"method\":\"" + method + "\",\"params\":{\"count\":" + count + "}" +
+                (id != null ? ",\"id\":" + id : "") + "}";
+    }
+}
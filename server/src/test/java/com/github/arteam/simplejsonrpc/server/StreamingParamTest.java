@@ -0,0 +1,114 @@
+package com.github.arteam.simplejsonrpc.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcOptional;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests array params which are read by methods as iterators and streams
+ */
+public class StreamingParamTest {
+
+    private JsonRpcServer rpcServer = new JsonRpcServer();
+    private IngestService ingestService = new IngestService();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @JsonRpcService
+    public static class IngestService {
+
+        private Iterator<Long> skippedValues;
+
+        private final AtomicInteger closedStreams = new AtomicInteger();
+
+        @JsonRpcMethod
+        public boolean skip(@JsonRpcParam("values") Iterator<Long> values,
+                            @JsonRpcParam("names") Stream<String> names) {
+            skippedValues = values;
+            names.onClose(closedStreams::incrementAndGet);
+            return true;
+        }
+
+        @JsonRpcMethod
+        public long sum(@JsonRpcParam("label") String label, @JsonRpcParam("values") Iterator<Long> values) {
+            long sum = 0;
+            while (values.hasNext()) {
+                sum += values.next();
+            }
+            return sum;
+        }
+
+        @JsonRpcMethod
+        public String join(@JsonRpcParam("names") Stream<String> names,
+                           @JsonRpcOptional @JsonRpcParam("tags") Stream<String> tags) {
+            return Stream.concat(names, tags).collect(Collectors.joining(","));
+        }
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        String values = IntStream.rangeClosed(1, 10_000).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        String response = rpcServer.handle("{\"jsonrpc\":\"2.0\",\"method\":\"sum\"," +
+                "\"params\":{\"values\":[" + values + "],\"label\":\"ids\"},\"id\":1}", ingestService);
+        assertThat(mapper.readTree(response).get("result").asLong()).isEqualTo(50_005_000L);
+    }
+
+    @Test
+    public void testIteratorWithOutputStream() throws Exception {
+        String values = IntStream.rangeClosed(1, 10_000).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        byte[] request = ("{\"jsonrpc\":\"2.0\",\"method\":\"sum\"," +
+                "\"params\":{\"values\":[" + values + "],\"label\":\"ids\"},\"id\":1}").getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThat(rpcServer.handle(request, output, ingestService)).isTrue();
+        assertThat(mapper.readTree(output.toByteArray()).get("result").asLong()).isEqualTo(50_005_000L);
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        String response = rpcServer.handle("{\"jsonrpc\":\"2.0\",\"method\":\"join\"," +
+                "\"params\":[[\"Backes\",\"Allen\"],[\"C\",\"G\"]],\"id\":1}", ingestService);
+        assertThat(mapper.readTree(response).get("result").asText()).isEqualTo("Backes,Allen,C,G");
+    }
+
+    @Test
+    public void testOptionalStream() throws Exception {
+        String response = rpcServer.handle("{\"jsonrpc\":\"2.0\",\"method\":\"join\"," +
+                "\"params\":{\"names\":[\"Backes\"]},\"id\":1}", ingestService);
+        assertThat(mapper.readTree(response).get("result").asText()).isEqualTo("Backes");
+    }
+
+    @Test
+    public void testUnconsumedParamsAreClosed() throws Exception {
+        String response = rpcServer.handle("{\"jsonrpc\":\"2.0\",\"method\":\"skip\"," +
+                "\"params\":{\"values\":[1,2,3],\"names\":[\"Backes\"]},\"id\":1}", ingestService);
+        assertThat(mapper.readTree(response).get("result").asBoolean()).isTrue();
+        assertThat(ingestService.skippedValues.hasNext()).isFalse();
+        assertThat(ingestService.closedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWrongElement() throws Exception {
+        String response = rpcServer.handle("{\"jsonrpc\":\"2.0\",\"method\":\"sum\"," +
+                "\"params\":{\"label\":\"ids\",\"values\":[1,2,\"three\"]},\"id\":1}", ingestService);
+        assertThat(mapper.readTree(response).get("error").get("code").asInt()).isEqualTo(-32602);
+    }
+
+    @Test
+    public void testNotArray() throws Exception {
+        String response = rpcServer.handle("{\"jsonrpc\":\"2.0\",\"method\":\"sum\"," +
+                "\"params\":{\"label\":\"ids\",\"values\":{\"value\":1}},\"id\":1}", ingestService);
+        assertThat(mapper.readTree(response).get("error").get("code").asInt()).isEqualTo(-32602);
+    }
+}
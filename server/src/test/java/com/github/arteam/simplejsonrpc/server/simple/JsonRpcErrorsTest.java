@@ -159,6 +159,12 @@ public class JsonRpcErrorsTest {
         assertThat(json(response)).isEqualTo(json(responseFile("invalid_params.json")));
     }
 
+    @Test
+    public void testWrongLazyParameterType() {
+        String response = rpcController.handle(requestFile("wrong_lazy_parameter_type.json"), teamService);
+        assertThat(json(response)).isEqualTo(json(responseFile("invalid_params.json")));
+    }
+
     @Test
     public void testWrongParameterName() {
         String response = rpcController.handle(requestFile("wrong_parameter_name.json"), teamService);
@@ -13,7 +13,12 @@ import com.google.common.io.Resources;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -153,6 +158,74 @@ public class JsonRpcServiceTest {
         test("genericFindPlayersByNumbers");
     }
 
+    /**
+     * Tests a lazy parameter
+     */
+    @Test
+    public void testCanSign() {
+        test("can_sign");
+    }
+
+    /**
+     * Tests a lazy parameter is not bound, if the method doesn't access it
+     */
+    @Test
+    public void testCanSignLazyParamIsNotAccessed() {
+        test("can_sign_lazy_param_is_not_accessed");
+    }
+
+    /**
+     * Tests forwarding raw JSON
+     */
+    @Test
+    public void testForward() {
+        test("forward");
+    }
+
+    /**
+     * Tests raw JSON is copied from the request as it is
+     */
+    @Test
+    public void testForwardKeepsRawJson() {
+        String request = "{\"jsonrpc\":\"2.0\",\"method\":\"forward\"," +
+                "\"params\":{\"json\":{ \"name\" : \"St. Louis Blues\", \"league\" : \"NHL\" }},\"id\":1}";
+        byte[] response = rpcServer.handle(request.getBytes(StandardCharsets.UTF_8), teamService);
+        assertThat(new String(response, StandardCharsets.UTF_8)).isEqualTo("{\"id\":1," +
+                "\"result\":{ \"name\" : \"St. Louis Blues\", \"league\" : \"NHL\" },\"jsonrpc\":\"2.0\"}");
+    }
+
+    /**
+     * Tests a request is parsed from a stream, which is not closed
+     */
+    @Test
+    public void testHandleStream() throws Exception {
+        String request = "{\"jsonrpc\":\"2.0\",\"method\":\"forward\"," +
+                "\"params\":{\"json\":{\"name\":\"St. Louis Blues\",\"league\":\"NHL\"}},\"id\":1}";
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream input = new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThat(rpcServer.handle(input, output, teamService)).isTrue();
+        assertThat(userMapper.readTree(output.toByteArray())).isEqualTo(userMapper.readTree("{\"jsonrpc\":\"2.0\"," +
+                "\"id\":1,\"result\":{\"name\":\"St. Louis Blues\",\"league\":\"NHL\"}}"));
+        assertThat(closed).isFalse();
+    }
+
+    /**
+     * Tests a malformed request from a stream is a parse error
+     */
+    @Test
+    public void testHandleMalformedStream() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        InputStream input = new ByteArrayInputStream("{\"jsonrpc\":\"2.0\",\"method\":".getBytes(StandardCharsets.UTF_8));
+        assertThat(rpcServer.handle(input, output, teamService)).isTrue();
+        assertThat(userMapper.readTree(output.toByteArray()).get("error").get("code").asInt()).isEqualTo(-32700);
+    }
+
     private void test(String testName) {
         try {
             RequestResponse requestResponse = testData.get(testName);
@@ -4,6 +4,7 @@ import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcOptional;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
 import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import com.github.arteam.simplejsonrpc.core.domain.RawJson;
 import com.github.arteam.simplejsonrpc.server.simple.domain.Player;
 import com.github.arteam.simplejsonrpc.server.simple.domain.Position;
 import com.github.arteam.simplejsonrpc.server.simple.domain.Team;
@@ -27,6 +28,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -241,6 +243,19 @@ public class TeamService extends BaseService {
     }
 
 
+    @JsonRpcMethod
+    public boolean canSign(@JsonRpcParam("number") int number, @JsonRpcParam("player") Supplier<Player> player) {
+        if (players.stream().anyMatch(p -> p.getNumber() == number)) {
+            return false;
+        }
+        return player.get().getNumber() == number;
+    }
+
+    @JsonRpcMethod
+    public RawJson forward(@JsonRpcParam("json") RawJson json) {
+        return json;
+    }
+
     @JsonRpcMethod
     public static Date date(@JsonRpcParam("textDate") String textDate) {
         return fmt.parseDateTime(textDate).toDate();
@@ -6,7 +6,10 @@ import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
 import com.google.common.cache.CacheBuilderSpec;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +38,15 @@ public class SpecTest {
             } else {
                 assertThat(actual).isEqualTo(response.asText());
             }
+
+            byte[] binaryRequest = textRequest.getBytes(StandardCharsets.UTF_8);
+            assertThat(new String(rpcServer.handle(binaryRequest, calculatorService), StandardCharsets.UTF_8))
+                    .isEqualTo(actual);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            boolean written = rpcServer.handle(new ByteArrayInputStream(binaryRequest), output, calculatorService);
+            assertThat(written).isEqualTo(!actual.isEmpty());
+            assertThat(output.toString("UTF-8")).isEqualTo(actual);
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
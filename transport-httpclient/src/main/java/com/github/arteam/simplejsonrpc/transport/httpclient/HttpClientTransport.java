@@ -0,0 +1,232 @@
+package com.github.arteam.simplejsonrpc.transport.httpclient;
+
+import com.github.arteam.simplejsonrpc.client.AsyncTransport;
+import com.github.arteam.simplejsonrpc.client.BinaryTransport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>Transport which sends requests to a JSON-RPC endpoint with {@link HttpClient}.</p>
+ * <p>The client prefers HTTP/2, so concurrent requests to a backend are multiplexed over
+ * a single connection. Requests could be sent asynchronously with {@link #passAsync(String)},
+ * then no thread waits for a response. Request and response bodies are passed as UTF-8 bytes,
+ * without string body handlers, and the client passes them without strings as well.</p>
+ * <p>The transport is thread-safe and should be shared, because it shares the connections
+ * of the HTTP client.</p>
+ */
+public class HttpClientTransport implements AsyncTransport, BinaryTransport {
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final byte[] EMPTY_RESPONSE = new byte[0];
+
+    @NotNull
+    private final HttpClient httpClient;
+
+    @NotNull
+    private final URI uri;
+
+    @Nullable
+    private final Duration timeout;
+
+    @NotNull
+    private final Map<String, String> headers;
+
+    private HttpClientTransport(@NotNull HttpClient httpClient, @NotNull URI uri, @Nullable Duration timeout,
+                                @NotNull Map<String, String> headers) {
+        this.httpClient = httpClient;
+        this.uri = uri;
+        this.timeout = timeout;
+        this.headers = headers;
+    }
+
+    /**
+     * Creates a transport with an HTTP client which prefers HTTP/2
+     *
+     * @param uri URI of a JSON-RPC endpoint
+     */
+    public HttpClientTransport(@NotNull URI uri) {
+        this(builder(uri));
+    }
+
+    private HttpClientTransport(@NotNull Builder builder) {
+        this(builder.httpClient != null ? builder.httpClient : HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .build(),
+                builder.uri, builder.timeout, new LinkedHashMap<>(builder.headers));
+    }
+
+    /**
+     * Creates a builder of a transport
+     *
+     * @param uri URI of a JSON-RPC endpoint
+     * @return new builder
+     */
+    @NotNull
+    public static Builder builder(@NotNull URI uri) {
+        return new Builder(uri);
+    }
+
+    @NotNull
+    @Override
+    public String pass(@NotNull String request) throws IOException {
+        return new String(exchange(request.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends a request without blocking the current thread
+     *
+     * @param request JSON-RPC request as a string
+     * @return future JSON-RPC response as a string, which fails with an {@link IOException}
+     * if the request can't be sent or the response has an unexpected status
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<String> passAsync(@NotNull String request) {
+        return exchangeAsync(request.getBytes(StandardCharsets.UTF_8))
+                .thenApply(response -> new String(response, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a request in UTF-8 and waits for a response
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return JSON-RPC response in UTF-8, empty if the request doesn't have a response
+     * @throws IOException if the request can't be sent or the response has an unexpected status
+     */
+    @NotNull
+    @Override
+    public byte[] exchange(@NotNull byte[] request) throws IOException {
+        try {
+            return body(httpClient.send(newRequest(request), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        }
+    }
+
+    /**
+     * Sends a request in UTF-8 without blocking the current thread
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return future JSON-RPC response in UTF-8, empty if the request doesn't have a response
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<byte[]> exchangeAsync(@NotNull byte[] request) {
+        return httpClient.sendAsync(newRequest(request), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        return body(response);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    @NotNull
+    private HttpRequest newRequest(@NotNull byte[] request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", CONTENT_TYPE)
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request));
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+
+    @NotNull
+    private static byte[] body(@NotNull HttpResponse<byte[]> response) throws IOException {
+        int status = response.statusCode();
+        if (status == 204) {
+            return EMPTY_RESPONSE;
+        }
+        if (status != 200) {
+            throw new IOException("Unexpected HTTP status " + status + " from " + response.uri());
+        }
+        return response.body();
+    }
+
+    /**
+     * Builder of a transport
+     */
+    public static class Builder {
+
+        @NotNull
+        private final URI uri;
+
+        @Nullable
+        private HttpClient httpClient;
+
+        @Nullable
+        private Duration timeout;
+
+        @NotNull
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        private Builder(@NotNull URI uri) {
+            this.uri = uri;
+        }
+
+        /**
+         * Sets an HTTP client, which could be shared with other transports.
+         * By default, a new client which prefers HTTP/2 is created.
+         *
+         * @param httpClient HTTP client
+         * @return the current builder
+         */
+        @NotNull
+        public Builder httpClient(@NotNull HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Sets the max time to wait for a response, there is no limit by default
+         *
+         * @param timeout response timeout
+         * @return the current builder
+         */
+        @NotNull
+        public Builder timeout(@NotNull Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Adds a header to every request (e.g. for authorization)
+         *
+         * @param name  header name
+         * @param value header value
+         * @return the current builder
+         */
+        @NotNull
+        public Builder header(@NotNull String name, @NotNull String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        /**
+         * @return new transport
+         */
+        @NotNull
+        public HttpClientTransport build() {
+            return new HttpClientTransport(this);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.arteam.simplejsonrpc.transport.httpclient;
+
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import com.github.arteam.simplejsonrpc.transport.http.JsonRpcHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the HTTP client transport against the HTTP endpoint
+ */
+public class HttpClientTransportTest {
+
+    private final CounterService counterService = new CounterService();
+    private JsonRpcHttpServer server;
+    private HttpClientTransport transport;
+
+    @JsonRpcService
+    public static class CounterService {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @JsonRpcMethod
+        public int add(@JsonRpcParam("delta") int delta) {
+            return counter.addAndGet(delta);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = JsonRpcHttpServer.builder(new JsonRpcServer(), counterService)
+                .path("/rpc")
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        transport = new HttpClientTransport(uri("/rpc"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testRequest() {
+        JsonRpcClient client = new JsonRpcClient(transport);
+        int value = client.createRequest()
+                .method("add")
+                .id(1)
+                .param("delta", 2)
+                .returnAs(int.class)
+                .execute();
+        assertThat(value).isEqualTo(2);
+    }
+
+    @Test
+    public void testNotification() {
+        JsonRpcClient client = new JsonRpcClient(transport);
+        client.createNotification()
+                .method("add")
+                .param("delta", 3)
+                .execute();
+        assertThat(counterService.counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testAsyncRequests() throws Exception {
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            responses.add(transport.passAsync("{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"params\":{\"delta\":1}," +
+                    "\"id\":" + i + "}"));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertThat(counterService.counter.get()).isEqualTo(100);
+        assertThat(responses.get(0).get()).contains("\"id\":1");
+    }
+
+    @Test
+    public void testServerIsDown() {
+        HttpClientTransport downTransport = HttpClientTransport.builder(uri("/rpc"))
+                .header("X-Request-Source", "test")
+                .build();
+        server.close();
+        assertThatThrownBy(() -> downTransport.pass("{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"id\":1}"))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testAsyncUnexpectedStatus() throws IOException {
+        server.close();
+        server = JsonRpcHttpServer.builder(new JsonRpcServer(), counterService)
+                .path("/rpc")
+                .maxRequestSize(8)
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        CompletableFuture<String> response = new HttpClientTransport(uri("/rpc"))
+                .passAsync("{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"id\":1}");
+        assertThatThrownBy(() -> response.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("413");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getLocalAddress().getPort() + path);
+    }
+}
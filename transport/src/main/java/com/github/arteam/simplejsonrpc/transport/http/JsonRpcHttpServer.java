@@ -0,0 +1,464 @@
+package com.github.arteam.simplejsonrpc.transport.http;
+
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>Embeddable HTTP endpoint for JSON-RPC requests, built on the JDK HTTP server.</p>
+ * <p>Every request is handled in its own virtual thread on Java 21 and later, so methods
+ * which block for a long time don't need a tuned thread pool. On earlier versions, requests are
+ * handled by a cached thread pool. Connections are kept alive between requests. Virtual threads don't
+ * keep the per-thread caches of {@link JsonRpcServer}: response buffers are taken from a pool shared
+ * by virtual threads, and arrays of method arguments are allocated per request.</p>
+ * <p>The request body is read to memory up to the max request size, so array params bound to
+ * {@code Stream} or {@code Iterator} arguments are read element by element from the request bytes
+ * instead of being parsed to trees. The response is written to the connection as it's serialized.
+ * The endpoint responds with:</p>
+ * <ul>
+ * <li>200 and a JSON-RPC response, including JSON-RPC errors;</li>
+ * <li>204 without a body, if the request has no response (a notification or a batch of notifications);</li>
+ * <li>405 for a method other than POST;</li>
+ * <li>413 for a request larger than the limit.</li>
+ * </ul>
+ */
+public class JsonRpcHttpServer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonRpcHttpServer.class);
+
+    private static final int DEFAULT_MAX_REQUEST_SIZE = 16 * 1024 * 1024;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    @NotNull
+    private final HttpServer httpServer;
+
+    @Nullable
+    private final ExecutorService ownExecutor;
+
+    private JsonRpcHttpServer(@NotNull HttpServer httpServer, @Nullable ExecutorService ownExecutor) {
+        this.httpServer = httpServer;
+        this.ownExecutor = ownExecutor;
+    }
+
+    /**
+     * Creates a builder of a server
+     *
+     * @param rpcServer JSON-RPC server which handles requests
+     * @param service   service which methods are called
+     * @return new builder
+     */
+    @NotNull
+    public static Builder builder(@NotNull JsonRpcServer rpcServer, @NotNull Object service) {
+        return new Builder(rpcServer, service);
+    }
+
+    /**
+     * @return address the server listens on, with the actual port if it was chosen by the OS
+     */
+    @NotNull
+    public InetSocketAddress getLocalAddress() {
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Stops the server without waiting for requests in progress
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Creates an executor which starts a virtual thread per task, if the JVM supports them,
+     * or a cached pool of daemon threads otherwise
+     */
+    @NotNull
+    private static ExecutorService newRequestExecutor() {
+        try {
+            // Looked up reflectively, because virtual threads are available only since Java 21
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat("json-rpc-http-worker-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
+
+    /**
+     * Passes request bodies to the JSON-RPC server
+     */
+    private static class JsonRpcHandler implements HttpHandler {
+
+        @NotNull
+        private final JsonRpcServer rpcServer;
+
+        @NotNull
+        private final Object service;
+
+        private final long maxRequestSize;
+
+        private JsonRpcHandler(@NotNull JsonRpcServer rpcServer, @NotNull Object service, long maxRequestSize) {
+            this.rpcServer = rpcServer;
+            this.service = service;
+            this.maxRequestSize = maxRequestSize;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!exchange.getRequestMethod().equals("POST")) {
+                    exchange.getResponseHeaders().set("Allow", "POST");
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                String contentLengthHeader = exchange.getRequestHeaders().getFirst("Content-Length");
+                long contentLength = contentLengthHeader != null ? parseLength(contentLengthHeader) : -1;
+                if (contentLength > maxRequestSize) {
+                    rejectTooLarge(exchange);
+                    return;
+                }
+                byte[] request;
+                try {
+                    request = readRequest(new LimitedInputStream(exchange.getRequestBody(), maxRequestSize),
+                            contentLength);
+                } catch (RequestTooLargeException e) {
+                    rejectTooLarge(exchange);
+                    return;
+                }
+                ResponseBody responseBody = new ResponseBody(exchange);
+                if (rpcServer.handle(request, responseBody, service)) {
+                    responseBody.finish();
+                } else {
+                    exchange.sendResponseHeaders(204, -1);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Unable to handle request", e);
+                if (exchange.getResponseCode() == -1) {
+                    exchange.sendResponseHeaders(500, -1);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private static long parseLength(@NotNull String contentLength) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * Reads a request body, straight to an array of the right size if the length is known
+         */
+        @NotNull
+        private static byte[] readRequest(@NotNull InputStream input, long contentLength) throws IOException {
+            if (contentLength >= 0) {
+                byte[] request = new byte[(int) contentLength];
+                int read = 0;
+                while (read < request.length) {
+                    int chunk = input.read(request, read, request.length - read);
+                    if (chunk < 0) {
+                        throw new EOFException("Request body is shorter than " + contentLength + " bytes");
+                    }
+                    read += chunk;
+                }
+                return request;
+            }
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8 * 1024];
+            int read;
+            while ((read = input.read(chunk)) >= 0) {
+                request.write(chunk, 0, read);
+            }
+            return request.toByteArray();
+        }
+
+        private static void rejectTooLarge(@NotNull HttpExchange exchange) throws IOException {
+            // The rest of the body is not read, so the connection can't be reused
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(413, -1);
+        }
+    }
+
+    /**
+     * <p>Sends the response headers before the first byte of a response is sent, so a request
+     * without a response could get a different status.</p>
+     * <p>The server writes a response, which fits its buffer, with a single call. So the first write
+     * is held back: if the response is finished after it, it's sent with a {@code Content-Length}.
+     * Otherwise the response is streamed (e.g. a long stream of elements), and it's sent with
+     * chunked transfer encoding.</p>
+     */
+    private static class ResponseBody extends OutputStream {
+
+        @NotNull
+        private final HttpExchange exchange;
+
+        /**
+         * Copy of the first write, which is not sent yet
+         */
+        @Nullable
+        private byte[] pending;
+
+        @Nullable
+        private OutputStream body;
+
+        private ResponseBody(@NotNull HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @NotNull
+        private OutputStream body(long length) throws IOException {
+            if (body == null) {
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, length);
+                body = exchange.getResponseBody();
+            }
+            return body;
+        }
+
+        /**
+         * Starts a streamed response, which length is not known in advance
+         */
+        @NotNull
+        private OutputStream streamedBody() throws IOException {
+            OutputStream streamedBody = body(0);
+            if (pending != null) {
+                byte[] first = pending;
+                pending = null;
+                streamedBody.write(first);
+            }
+            return streamedBody;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            if (body == null && pending == null) {
+                pending = Arrays.copyOfRange(b, off, off + len);
+                return;
+            }
+            streamedBody().write(b, off, len);
+        }
+
+        /**
+         * Sends the held back response with its length, if the response hasn't been streamed
+         */
+        private void finish() throws IOException {
+            if (body != null) {
+                return;
+            }
+            byte[] response = pending != null ? pending : new byte[0];
+            pending = null;
+            // A zero length means chunked encoding for the JDK server, and -1 means no body
+            body(response.length > 0 ? response.length : -1).write(response);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+    }
+
+    private static class RequestTooLargeException extends IOException {
+
+        private RequestTooLargeException(long maxRequestSize) {
+            super("Request is larger than " + maxRequestSize + " bytes");
+        }
+    }
+
+    /**
+     * Fails when more than the max request size is read
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private final long maxRequestSize;
+
+        private LimitedInputStream(@NotNull InputStream in, long maxRequestSize) {
+            super(in);
+            this.remaining = maxRequestSize;
+            this.maxRequestSize = maxRequestSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long read) throws RequestTooLargeException {
+            remaining -= read;
+            if (remaining < 0) {
+                throw new RequestTooLargeException(maxRequestSize);
+            }
+        }
+    }
+
+    /**
+     * Builder of an HTTP server
+     */
+    public static class Builder {
+
+        @NotNull
+        private final JsonRpcServer rpcServer;
+
+        @NotNull
+        private final Object service;
+
+        @NotNull
+        private String path = "/";
+
+        private long maxRequestSize = DEFAULT_MAX_REQUEST_SIZE;
+
+        @Nullable
+        private Executor executor;
+
+        private int backlog;
+
+        private Builder(@NotNull JsonRpcServer rpcServer, @NotNull Object service) {
+            this.rpcServer = rpcServer;
+            this.service = service;
+        }
+
+        /**
+         * Sets the path of the endpoint, "/" by default
+         *
+         * @param path URI path
+         * @return the current builder
+         */
+        @NotNull
+        public Builder path(@NotNull String path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the max size of a request body, 16 MB by default. A request is read to memory,
+         * so the size is limited by the max size of an array.
+         *
+         * @param maxRequestSize max size in bytes
+         * @return the current builder
+         */
+        @NotNull
+        public Builder maxRequestSize(long maxRequestSize) {
+            if (maxRequestSize < 1) {
+                throw new IllegalArgumentException("Max request size should be positive");
+            }
+            if (maxRequestSize > MAX_ARRAY_SIZE) {
+                throw new IllegalArgumentException("Max request size should be at most " + MAX_ARRAY_SIZE);
+            }
+            this.maxRequestSize = maxRequestSize;
+            return this;
+        }
+
+        /**
+         * Sets an executor for handling requests. By default, every request is handled
+         * in a new virtual thread (on Java 21 and later) or by a cached thread pool, which
+         * is shut down with the server.
+         *
+         * @param executor executor for handling requests
+         * @return the current builder
+         */
+        @NotNull
+        public Builder executor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the max amount of pending connections, a platform default by default
+         *
+         * @param backlog max amount of pending connections
+         * @return the current builder
+         */
+        @NotNull
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Binds the server to an address and starts it
+         *
+         * @param address local address, could have port 0 to let the OS choose a port
+         * @return started server
+         * @throws IOException if the server can't be bound
+         */
+        @NotNull
+        public JsonRpcHttpServer bind(@NotNull InetSocketAddress address) throws IOException {
+            HttpServer httpServer = HttpServer.create(address, backlog);
+            httpServer.createContext(path, new JsonRpcHandler(rpcServer, service, maxRequestSize));
+            ExecutorService ownExecutor = null;
+            Executor executor = this.executor;
+            if (executor == null) {
+                ownExecutor = newRequestExecutor();
+                executor = ownExecutor;
+            }
+            httpServer.setExecutor(executor);
+            httpServer.start();
+            return new JsonRpcHttpServer(httpServer, ownExecutor);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.arteam.simplejsonrpc.transport.shm;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Wait strategy of a ring buffer consumer or producer.</p>
+ * <p>A waiting thread spins first, so a message which comes soon is picked up without
+ * a context switch. Then it yields the processor, and then parks for a growing period of time.
+ * The other side is another process, so it can't unpark the thread, and the park time is capped
+ * to keep the latency of a message after an idle period low.</p>
+ */
+class Backoff {
+
+    /**
+     * Spinning on a single processor only delays the other side
+     */
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 10_000 : 0;
+    private static final int YIELDS = 100;
+    private static final long MIN_PARK_NANOS = 1_000;
+    private static final long MAX_PARK_NANOS = 50_000;
+
+    private int iteration;
+    private long parkNanos = MIN_PARK_NANOS;
+
+    /**
+     * Waits a bit before the next check
+     */
+    void idle() {
+        if (iteration < SPINS) {
+            iteration++;
+        } else if (iteration < SPINS + YIELDS) {
+            iteration++;
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Starts spinning again after the thread got some work
+     */
+    void reset() {
+        iteration = 0;
+        parkNanos = MIN_PARK_NANOS;
+    }
+}
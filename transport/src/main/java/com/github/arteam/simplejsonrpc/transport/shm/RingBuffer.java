@@ -0,0 +1,187 @@
+package com.github.arteam.simplejsonrpc.transport.shm;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Single-producer single-consumer queue of messages in a shared memory region.</p>
+ * <p>The region starts with a control block with the read position (head) and the write position
+ * (tail) on separate cache lines, followed by the data. Positions only grow, and the data
+ * index is a position modulo the capacity, so a message could wrap around the end of the data.
+ * Every message is a record of an 8-byte header (payload length and message id) and the payload,
+ * aligned to 8 bytes. The producer publishes a record by moving the tail after the record is
+ * written, and the consumer frees it by moving the head after the record is read.</p>
+ * <p>The positions are published with ordered writes and read with volatile reads through {@link Unsafe},
+ * because accesses to a direct buffer don't have memory ordering guarantees on Java 8. So a record
+ * written before the tail is moved is visible to the consumer which reads the new tail, and the space
+ * freed by moving the head is not overwritten before the consumer is done with it.</p>
+ * <p>The producer and the consumer are usually in different processes. An instance of the class
+ * should be used by one thread, either as the producer or as the consumer.</p>
+ */
+class RingBuffer {
+
+    static final int HEADER_SIZE = 8;
+
+    static final int CONTROL_SIZE = 128;
+
+    private static final int HEAD_OFFSET = 0;
+    private static final int TAIL_OFFSET = 64;
+
+    private static final Unsafe UNSAFE;
+
+    /**
+     * Offset of the native address of a direct buffer in {@link Buffer}
+     */
+    private static final long ADDRESS_OFFSET;
+
+    static {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            UNSAFE = (Unsafe) field.get(null);
+            ADDRESS_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @NotNull
+    private final ByteBuffer region;
+
+    @NotNull
+    private final ByteBuffer data;
+
+    private final long headAddress;
+
+    private final long tailAddress;
+
+    private final int dataOffset;
+
+    private final int capacity;
+
+    private final int mask;
+
+    /**
+     * @param region        shared memory region, a direct buffer
+     * @param controlOffset start of the control block in the region
+     * @param capacity      size of the data, a power of two
+     */
+    RingBuffer(@NotNull ByteBuffer region, int controlOffset, int capacity) {
+        if (Integer.bitCount(capacity) != 1 || capacity < HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity should be a power of two: " + capacity);
+        }
+        if (!region.isDirect()) {
+            throw new IllegalArgumentException("Region should be a direct buffer");
+        }
+        this.region = region;
+        this.data = region.duplicate();
+        long controlAddress = UNSAFE.getLong(region, ADDRESS_OFFSET) + controlOffset;
+        this.headAddress = controlAddress + HEAD_OFFSET;
+        this.tailAddress = controlAddress + TAIL_OFFSET;
+        this.dataOffset = controlOffset + CONTROL_SIZE;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param capacity ring capacity
+     * @return size of a region of a ring with the capacity
+     */
+    static int size(int capacity) {
+        return CONTROL_SIZE + capacity;
+    }
+
+    /**
+     * @return max size of a message payload
+     */
+    int maxMessageSize() {
+        return capacity - HEADER_SIZE;
+    }
+
+    /**
+     * Writes a message if there is enough free space
+     *
+     * @param id      message id
+     * @param payload message payload, not larger than {@link #maxMessageSize()}
+     * @return {@code true} if the message is written
+     */
+    boolean offer(int id, @NotNull byte[] payload) {
+        if (payload.length > maxMessageSize()) {
+            throw new IllegalArgumentException("Message of size " + payload.length +
+                    " doesn't fit a ring of capacity " + capacity);
+        }
+        // Only the producer moves the tail, and the acquire of the head orders the writes after it
+        long tail = UNSAFE.getLong(tailAddress);
+        long head = UNSAFE.getLongVolatile(null, headAddress);
+        int recordSize = recordSize(payload.length);
+        if (tail + recordSize - head > capacity) {
+            return false;
+        }
+        int index = (int) (tail & mask);
+        region.putInt(dataOffset + index, payload.length);
+        region.putInt(dataOffset + index + 4, id);
+        copyIn(payload, (index + HEADER_SIZE) & mask);
+        UNSAFE.putOrderedLong(null, tailAddress, tail + recordSize);
+        return true;
+    }
+
+    /**
+     * Reads the next message if there is one
+     *
+     * @param target the next message, filled if the method returns a payload
+     * @return payload of the next message or {@code null} if the ring is empty
+     */
+    @Nullable
+    byte[] poll(@NotNull Message target) {
+        // Only the consumer moves the head, and the acquire of the tail orders the reads after it
+        long head = UNSAFE.getLong(headAddress);
+        long tail = UNSAFE.getLongVolatile(null, tailAddress);
+        if (head == tail) {
+            return null;
+        }
+        int index = (int) (head & mask);
+        int length = region.getInt(dataOffset + index);
+        target.id = region.getInt(dataOffset + index + 4);
+        byte[] payload = new byte[length];
+        copyOut(payload, (index + HEADER_SIZE) & mask);
+        UNSAFE.putOrderedLong(null, headAddress, head + recordSize(length));
+        return payload;
+    }
+
+    private void copyIn(@NotNull byte[] payload, int index) {
+        int firstPart = Math.min(payload.length, capacity - index);
+        data.position(dataOffset + index);
+        data.put(payload, 0, firstPart);
+        if (firstPart < payload.length) {
+            data.position(dataOffset);
+            data.put(payload, firstPart, payload.length - firstPart);
+        }
+    }
+
+    private void copyOut(@NotNull byte[] payload, int index) {
+        int firstPart = Math.min(payload.length, capacity - index);
+        data.position(dataOffset + index);
+        data.get(payload, 0, firstPart);
+        if (firstPart < payload.length) {
+            data.position(dataOffset);
+            data.get(payload, firstPart, payload.length - firstPart);
+        }
+    }
+
+    private static int recordSize(int length) {
+        return (HEADER_SIZE + length + 7) & ~7;
+    }
+
+    /**
+     * Id of a read message
+     */
+    static class Message {
+
+        int id;
+    }
+}
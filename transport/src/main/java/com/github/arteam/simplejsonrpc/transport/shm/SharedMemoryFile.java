@@ -0,0 +1,123 @@
+package com.github.arteam.simplejsonrpc.transport.shm;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Memory-mapped file with a ring of requests and a ring of responses.</p>
+ * <p>The file starts with a header with a magic number and the capacity of the rings.
+ * The server creates the file and writes the magic number last, so a client never opens
+ * a file which is not initialized yet.</p>
+ */
+class SharedMemoryFile implements Closeable {
+
+    private static final int MAGIC = 0x4A525043;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int FILE_HEADER_SIZE = 64;
+
+    @NotNull
+    private final FileChannel channel;
+
+    @NotNull
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private SharedMemoryFile(@NotNull FileChannel channel, @NotNull MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a new file, replacing an existing one
+     *
+     * @param path     path to the file
+     * @param capacity capacity of every ring, a power of two
+     * @return mapped file
+     * @throws IOException if the file can't be created
+     */
+    @NotNull
+    static SharedMemoryFile create(@NotNull Path path, int capacity) throws IOException {
+        if (Integer.bitCount(capacity) != 1 || capacity < 64) {
+            throw new IllegalArgumentException("Capacity should be a power of two, at least 64: " + capacity);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.force();
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            return new SharedMemoryFile(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a file created by a server
+     *
+     * @param path path to the file
+     * @return mapped file
+     * @throws IOException if the file doesn't exist or is not initialized
+     */
+    @NotNull
+    static SharedMemoryFile open(@NotNull Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < FILE_HEADER_SIZE) {
+                throw new IOException("File " + path + " is not initialized");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER_SIZE);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("File " + path + " is not initialized");
+            }
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            if (channel.size() < fileSize(capacity)) {
+                throw new IOException("File " + path + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            return new SharedMemoryFile(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long fileSize(int capacity) {
+        return FILE_HEADER_SIZE + 2L * RingBuffer.size(capacity);
+    }
+
+    /**
+     * @return new view of the ring of requests
+     */
+    @NotNull
+    RingBuffer requests() {
+        return new RingBuffer(buffer, FILE_HEADER_SIZE, capacity);
+    }
+
+    /**
+     * @return new view of the ring of responses
+     */
+    @NotNull
+    RingBuffer responses() {
+        return new RingBuffer(buffer, FILE_HEADER_SIZE + RingBuffer.size(capacity), capacity);
+    }
+
+    /**
+     * Closes the file. The memory is unmapped when the buffer is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.arteam.simplejsonrpc.transport.shm;
+
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <p>JSON-RPC server which exchanges messages with a client on the same host through
+ * a memory-mapped file.</p>
+ * <p>Requests and responses are passed through two single-producer single-consumer ring buffers,
+ * so there are no system calls on the data path. The server thread polls the ring of requests,
+ * spinning for a while after a request and parking with a short timeout when it's idle.
+ * Requests are handled one by one in the server thread. A file serves one client connection,
+ * which is a {@link SharedMemoryTransport}.</p>
+ */
+public class SharedMemoryServer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedMemoryServer.class);
+
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+
+    /**
+     * Response to a request, which the server has failed to handle or to answer within the ring.
+     * The JSON-RPC id of the request is unknown, but the client matches the response by the message id.
+     */
+    private static final byte[] INTERNAL_ERROR = ("{\"jsonrpc\":\"2.0\",\"id\":null," +
+            "\"error\":{\"code\":-32603,\"message\":\"Internal error\"}}").getBytes(StandardCharsets.UTF_8);
+
+    @NotNull
+    private final Path path;
+
+    @NotNull
+    private final SharedMemoryFile file;
+
+    @NotNull
+    private final JsonRpcServer rpcServer;
+
+    @NotNull
+    private final Object service;
+
+    @NotNull
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private SharedMemoryServer(@NotNull Path path, @NotNull SharedMemoryFile file,
+                               @NotNull JsonRpcServer rpcServer, @NotNull Object service) {
+        this.path = path;
+        this.file = file;
+        this.rpcServer = rpcServer;
+        this.service = service;
+        thread = new Thread(this::run, "json-rpc-shm-server");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Creates a file with rings of the default capacity (1 MB) and starts the server
+     *
+     * @param path      path to the file, preferably on a memory file system like /dev/shm
+     * @param rpcServer JSON-RPC server which handles requests
+     * @param service   service which methods are called
+     * @return started server
+     * @throws IOException if the file can't be created
+     */
+    @NotNull
+    public static SharedMemoryServer start(@NotNull Path path, @NotNull JsonRpcServer rpcServer,
+                                           @NotNull Object service) throws IOException {
+        return start(path, DEFAULT_CAPACITY, rpcServer, service);
+    }
+
+    /**
+     * Creates a file and starts the server
+     *
+     * @param path      path to the file, preferably on a memory file system like /dev/shm
+     * @param capacity  capacity of the rings in bytes, a power of two. A request or a response
+     *                  should fit in a ring with an 8-byte header.
+     * @param rpcServer JSON-RPC server which handles requests
+     * @param service   service which methods are called
+     * @return started server
+     * @throws IOException if the file can't be created
+     */
+    @NotNull
+    public static SharedMemoryServer start(@NotNull Path path, int capacity, @NotNull JsonRpcServer rpcServer,
+                                           @NotNull Object service) throws IOException {
+        SharedMemoryServer server = new SharedMemoryServer(path, SharedMemoryFile.create(path, capacity),
+                rpcServer, service);
+        server.thread.start();
+        return server;
+    }
+
+    private void run() {
+        RingBuffer requests = file.requests();
+        RingBuffer responses = file.responses();
+        RingBuffer.Message message = new RingBuffer.Message();
+        Backoff backoff = new Backoff();
+        while (running) {
+            byte[] request = requests.poll(message);
+            if (request == null) {
+                backoff.idle();
+                continue;
+            }
+            backoff.reset();
+            byte[] response = handle(request, responses.maxMessageSize());
+            while (running && !responses.offer(message.id, response)) {
+                backoff.idle();
+            }
+            backoff.reset();
+        }
+    }
+
+    /**
+     * Handles a request. A failure or a response which doesn't fit the ring is answered by
+     * an internal error, so the client doesn't wait for the response forever.
+     */
+    @NotNull
+    private byte[] handle(@NotNull byte[] request, int maxResponseSize) {
+        byte[] response;
+        try {
+            response = rpcServer.handle(request, service);
+        } catch (RuntimeException e) {
+            log.error("Unable to handle request", e);
+            return INTERNAL_ERROR;
+        }
+        if (response.length > maxResponseSize) {
+            log.error("Response of size {} doesn't fit the ring, the client gets an internal error",
+                    response.length);
+            return INTERNAL_ERROR;
+        }
+        return response;
+    }
+
+    /**
+     * Stops the server and deletes the file
+     *
+     * @throws IOException if the file can't be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while stopping server");
+        } finally {
+            file.close();
+        }
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.arteam.simplejsonrpc.transport.shm;
+
+import com.github.arteam.simplejsonrpc.client.BinaryTransport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>Transport which passes requests to a {@link SharedMemoryServer} on the same host
+ * through a memory-mapped file.</p>
+ * <p>The rings in the file have a single producer and a single consumer, so a request is sent
+ * only after the previous response is received, and calls from different threads are serialized.
+ * A thread which waits for a response spins for a while, so a fast response is picked up without
+ * a context switch.</p>
+ * <p>The transport is blocking only. It doesn't override {@link #exchangeAsync(byte[])}, so async requests
+ * and future proxies wait for responses in the calling thread, and a {@code CoalescingTransport} over it
+ * blocks its scheduler thread. A single request is in flight at a time anyway, so an async call
+ * wouldn't send requests faster.</p>
+ */
+public class SharedMemoryTransport implements BinaryTransport, Closeable {
+
+    @NotNull
+    private final SharedMemoryFile file;
+
+    @NotNull
+    private final RingBuffer requests;
+
+    @NotNull
+    private final RingBuffer responses;
+
+    @Nullable
+    private final Duration timeout;
+
+    @NotNull
+    private final RingBuffer.Message message = new RingBuffer.Message();
+
+    @NotNull
+    private final Backoff backoff = new Backoff();
+
+    private int nextId;
+
+    /**
+     * Opens a file created by a server, and waits for responses without a limit
+     *
+     * @param path path to the file
+     * @throws IOException if the file doesn't exist or is not initialized
+     */
+    public SharedMemoryTransport(@NotNull Path path) throws IOException {
+        this(path, null);
+    }
+
+    /**
+     * Opens a file created by a server
+     *
+     * @param path    path to the file
+     * @param timeout max time to wait for a response or {@code null} to wait without a limit
+     * @throws IOException if the file doesn't exist or is not initialized
+     */
+    public SharedMemoryTransport(@NotNull Path path, @Nullable Duration timeout) throws IOException {
+        this.file = SharedMemoryFile.open(path);
+        this.requests = file.requests();
+        this.responses = file.responses();
+        this.timeout = timeout;
+        // Don't match late responses to requests of a previous transport over the same file
+        this.nextId = ThreadLocalRandom.current().nextInt();
+    }
+
+    @NotNull
+    @Override
+    public synchronized byte[] exchange(@NotNull byte[] request) throws IOException {
+        if (request.length > requests.maxMessageSize()) {
+            throw new IOException("Request of size " + request.length + " doesn't fit the ring");
+        }
+        long deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+        int id = ++nextId;
+        try {
+            while (!requests.offer(id, request)) {
+                await(deadline);
+            }
+            backoff.reset();
+            while (true) {
+                byte[] response = responses.poll(message);
+                // Skip late responses to requests which have timed out
+                if (response != null && message.id == id) {
+                    return response;
+                }
+                if (response == null) {
+                    await(deadline);
+                }
+            }
+        } finally {
+            backoff.reset();
+        }
+    }
+
+    private void await(long deadline) throws IOException {
+        if (Thread.interrupted()) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        }
+        if (timeout != null && System.nanoTime() - deadline > 0) {
+            throw new SocketTimeoutException("No response in " + timeout);
+        }
+        backoff.idle();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
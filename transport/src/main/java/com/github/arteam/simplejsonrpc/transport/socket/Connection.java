@@ -0,0 +1,264 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>Server side of a client connection.</p>
+ * <p>The selector loop reads frames to the direct buffer of the loop and passes them to the executor,
+ * so a connection doesn't hold a buffer while it's idle, and requests from
+ * the same connection are handled concurrently. Responses are written by the worker threads
+ * as soon as they are ready. If the socket can't accept a response at once, the rest is
+ * queued and written by the loop when the socket becomes writable.</p>
+ */
+class Connection implements SelectorLoop.Handler {
+
+    private static final Logger log = LoggerFactory.getLogger(Connection.class);
+
+    /**
+     * Response to a request, which the server has failed to handle. The JSON-RPC id of the request
+     * is unknown, but the client matches the response by the frame id.
+     */
+    private static final byte[] INTERNAL_ERROR = ("{\"jsonrpc\":\"2.0\",\"id\":null," +
+            "\"error\":{\"code\":-32603,\"message\":\"Internal error\"}}").getBytes(StandardCharsets.UTF_8);
+
+    @NotNull
+    private final SocketChannel channel;
+
+    @NotNull
+    private final SelectorLoop loop;
+
+    @NotNull
+    private final JsonRpcServer rpcServer;
+
+    @NotNull
+    private final Object service;
+
+    @NotNull
+    private final Executor executor;
+
+    private final int maxFrameSize;
+
+    /**
+     * Incomplete frame, which is read over a few reads
+     */
+    @Nullable
+    private ByteBuffer partial;
+
+    /**
+     * Frames which are not written yet, guarded by {@code this}
+     */
+    @NotNull
+    private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+
+    @Nullable
+    private volatile SelectionKey key;
+
+    private boolean closed;
+
+    Connection(@NotNull SocketChannel channel, @NotNull SelectorLoop loop, @NotNull JsonRpcServer rpcServer,
+               @NotNull Object service, @NotNull Executor executor, int maxFrameSize) {
+        this.channel = channel;
+        this.loop = loop;
+        this.rpcServer = rpcServer;
+        this.service = service;
+        this.executor = executor;
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Registers the connection in the selector of the loop. Should be called by the loop thread.
+     */
+    void register() {
+        try {
+            key = channel.register(loop.selector(), SelectionKey.OP_READ, this);
+        } catch (IOException e) {
+            log.debug("Unable to register connection", e);
+            close();
+        }
+    }
+
+    @Override
+    public void handle(@NotNull SelectionKey key) throws IOException {
+        if (key.isReadable()) {
+            read();
+        }
+        if (key.isValid() && key.isWritable()) {
+            flush();
+        }
+    }
+
+    private void read() throws IOException {
+        ByteBuffer input = loop.readBuffer();
+        input.clear();
+        if (channel.read(input) < 0) {
+            close();
+            return;
+        }
+        input.flip();
+        if (partial == null) {
+            // Usual case: whole frames are handled straight from the shared buffer
+            readFrames(input);
+            if (input.hasRemaining()) {
+                partial = ByteBuffer.allocate(Math.max(input.remaining(), frameSize(input)));
+                partial.put(input);
+            }
+            return;
+        }
+        if (partial.remaining() < input.remaining()) {
+            ByteBuffer largerPartial = ByteBuffer.allocate(partial.position() + input.remaining());
+            partial.flip();
+            largerPartial.put(partial);
+            partial = largerPartial;
+        }
+        partial.put(input);
+        partial.flip();
+        readFrames(partial);
+        if (!partial.hasRemaining()) {
+            partial = null;
+        } else if (partial.capacity() < frameSize(partial)) {
+            // The header has been read, so the rest of the frame goes to a buffer of its size
+            ByteBuffer framePartial = ByteBuffer.allocate(frameSize(partial));
+            framePartial.put(partial);
+            partial = framePartial;
+        } else {
+            partial.compact();
+        }
+    }
+
+    /**
+     * Dispatches all whole frames from a buffer, the rest of the buffer is an incomplete frame
+     */
+    private void readFrames(@NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.remaining() >= Frames.HEADER_SIZE) {
+            int length = buffer.getInt(buffer.position());
+            Frames.checkLength(length, maxFrameSize);
+            if (buffer.remaining() < Frames.HEADER_SIZE + length) {
+                return;
+            }
+            buffer.getInt();
+            int id = buffer.getInt();
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            dispatch(id, payload);
+        }
+    }
+
+    /**
+     * @return size of the frame at the start of the buffer, if its header is read
+     */
+    private static int frameSize(@NotNull ByteBuffer buffer) {
+        return buffer.remaining() >= Frames.HEADER_SIZE ?
+                Frames.HEADER_SIZE + buffer.getInt(buffer.position()) : Frames.HEADER_SIZE;
+    }
+
+    private void dispatch(int id, @NotNull byte[] request) {
+        try {
+            executor.execute(() -> handle(id, request));
+        } catch (RejectedExecutionException e) {
+            log.warn("Request is rejected, closing connection", e);
+            close();
+        }
+    }
+
+    /**
+     * Handles a request and sends the response. Any failure, including an error like
+     * {@link StackOverflowError}, is answered by an internal error, so the client doesn't wait
+     * for the response forever. Errors are rethrown after the response is sent.
+     */
+    private void handle(int id, @NotNull byte[] request) {
+        byte[] response;
+        try {
+            response = rpcServer.handle(request, service);
+        } catch (Throwable e) {
+            log.error("Unable to handle request", e);
+            send(id, INTERNAL_ERROR);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return;
+        }
+        send(id, response);
+    }
+
+    /**
+     * Writes a response frame or queues it if the socket is busy
+     *
+     * @param id       frame id of the request
+     * @param response JSON-RPC response in UTF-8, could be empty
+     */
+    void send(int id, @NotNull byte[] response) {
+        ByteBuffer frame = Frames.encode(id, response);
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (!writeQueue.isEmpty()) {
+                writeQueue.add(frame);
+                return;
+            }
+            try {
+                channel.write(frame);
+            } catch (IOException e) {
+                log.debug("Unable to write response", e);
+                close();
+                return;
+            }
+            if (frame.hasRemaining()) {
+                writeQueue.add(frame);
+                loop.execute(this::awaitWritable);
+            }
+        }
+    }
+
+    private void awaitWritable() {
+        SelectionKey key = this.key;
+        if (key != null && key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private synchronized void flush() throws IOException {
+        ByteBuffer frame;
+        while ((frame = writeQueue.peek()) != null) {
+            channel.write(frame);
+            if (frame.hasRemaining()) {
+                return;
+            }
+            writeQueue.poll();
+        }
+        if (key != null) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeQueue.clear();
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Unable to close connection", e);
+        }
+    }
+}
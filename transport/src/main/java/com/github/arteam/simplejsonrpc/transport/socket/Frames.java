@@ -0,0 +1,92 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>Framing of JSON-RPC messages over a stream socket.</p>
+ * <p>Every frame starts with an 8-byte header: the length of the payload and the id of the frame,
+ * both as big-endian ints. The payload is a JSON-RPC request or response in UTF-8. The server
+ * responds to a frame with a frame with the same id, so a client can send several requests over
+ * a connection without waiting for responses, and match responses which come out of order.
+ * A request without a response (e.g. a notification) gets an empty frame.</p>
+ */
+class Frames {
+
+    static final int HEADER_SIZE = 8;
+
+    static final int DEFAULT_MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private Frames() {
+    }
+
+    /**
+     * Creates a frame ready to be written to a channel
+     *
+     * @param id      frame id
+     * @param payload JSON-RPC message in UTF-8
+     * @return buffer with the header and the payload
+     */
+    @NotNull
+    static ByteBuffer encode(int id, @NotNull byte[] payload) {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        frame.putInt(payload.length).putInt(id).put(payload);
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Checks the payload length from a frame header
+     *
+     * @param length       payload length
+     * @param maxFrameSize max allowed length
+     * @throws IOException if the length is out of bounds
+     */
+    static void checkLength(int length, int maxFrameSize) throws IOException {
+        if (length < 0 || length > maxFrameSize) {
+            throw new IOException("Wrong frame size: " + length + ", max is " + maxFrameSize);
+        }
+    }
+
+    /**
+     * Makes sure the buffer has enough data to read, reading more from a blocking channel if needed
+     *
+     * @param channel source channel
+     * @param buffer  buffer in the read mode
+     * @param size    amount of bytes which should be available in the buffer
+     * @throws IOException if the channel is closed before the data is read
+     */
+    static void fill(@NotNull ReadableByteChannel channel, @NotNull ByteBuffer buffer, int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < size) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Connection is closed");
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Writes the whole buffer to a blocking channel
+     *
+     * @param channel target channel
+     * @param buffer  source buffer
+     * @throws IOException if an I/O error happens during writing
+     */
+    static void writeFully(@NotNull WritableByteChannel channel, @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
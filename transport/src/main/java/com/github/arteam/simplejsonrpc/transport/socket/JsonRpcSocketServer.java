@@ -0,0 +1,368 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Non-blocking TCP server for JSON-RPC requests.</p>
+ * <p>Connections are handled by a few selector loops. Requests are read as length-prefixed frames
+ * and handled by an executor, so a client can send many requests over a connection without
+ * waiting for responses. Responses are sent back in frames with the same ids as soon as
+ * they are ready.</p>
+ * <p>By default, the first loop accepts connections and spreads them over all loops.
+ * If SO_REUSEPORT is enabled and supported by the platform, every loop listens on the port
+ * by itself and the OS balances connections between them.</p>
+ * <p>On Java 16 and later the server could listen on a Unix domain socket, if it's bound to
+ * a {@code UnixDomainSocketAddress}. The socket file is deleted when the server is closed.</p>
+ */
+public class JsonRpcSocketServer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonRpcSocketServer.class);
+
+    private static final String SO_REUSEPORT = "SO_REUSEPORT";
+
+    @NotNull
+    private final List<SelectorLoop> loops;
+
+    @NotNull
+    private final SocketAddress localAddress;
+
+    @Nullable
+    private final ExecutorService ownExecutor;
+
+    private JsonRpcSocketServer(@NotNull List<SelectorLoop> loops, @NotNull SocketAddress localAddress,
+                                @Nullable ExecutorService ownExecutor) {
+        this.loops = loops;
+        this.localAddress = localAddress;
+        this.ownExecutor = ownExecutor;
+    }
+
+    /**
+     * Creates a builder of a server
+     *
+     * @param rpcServer JSON-RPC server which handles requests
+     * @param service   service which methods are called
+     * @return new builder
+     */
+    @NotNull
+    public static Builder builder(@NotNull JsonRpcServer rpcServer, @NotNull Object service) {
+        return new Builder(rpcServer, service);
+    }
+
+    /**
+     * @return address the server listens on, with the actual port if it was chosen by the OS
+     */
+    @NotNull
+    public SocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    /**
+     * Stops accepting connections and closes all open connections
+     *
+     * @throws IOException if the current thread is interrupted while the server is stopping
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            for (SelectorLoop loop : loops) {
+                loop.stop();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while stopping server");
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+            if (UnixSockets.isUnixAddress(localAddress)) {
+                Files.deleteIfExists(UnixSockets.path(localAddress));
+            }
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> findReusePort(@NotNull ServerSocketChannel channel) {
+        // Looked up by name, because the option is not available in Java 8
+        for (SocketOption<?> option : channel.supportedOptions()) {
+            if (option.name().equals(SO_REUSEPORT) && option.type() == Boolean.class) {
+                return (SocketOption<Boolean>) option;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Accepts connections and passes them to the selector loops
+     */
+    private static class Acceptor implements SelectorLoop.Handler {
+
+        @NotNull
+        private final ServerSocketChannel serverChannel;
+
+        @NotNull
+        private final List<SelectorLoop> loops;
+
+        @NotNull
+        private final JsonRpcServer rpcServer;
+
+        @NotNull
+        private final Object service;
+
+        @NotNull
+        private final Executor executor;
+
+        private final int maxFrameSize;
+
+        @NotNull
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Acceptor(@NotNull ServerSocketChannel serverChannel, @NotNull List<SelectorLoop> loops,
+                         @NotNull JsonRpcServer rpcServer, @NotNull Object service,
+                         @NotNull Executor executor, int maxFrameSize) {
+            this.serverChannel = serverChannel;
+            this.loops = loops;
+            this.rpcServer = rpcServer;
+            this.service = service;
+            this.executor = executor;
+            this.maxFrameSize = maxFrameSize;
+        }
+
+        @Override
+        public void handle(@NotNull SelectionKey key) throws IOException {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                try {
+                    channel.configureBlocking(false);
+                    if (channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    }
+                } catch (IOException e) {
+                    log.debug("Unable to configure connection", e);
+                    channel.close();
+                    continue;
+                }
+                SelectorLoop loop = loops.get(Math.floorMod(next.getAndIncrement(), loops.size()));
+                Connection connection = new Connection(channel, loop, rpcServer, service,
+                        executor, maxFrameSize);
+                loop.execute(connection::register);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                log.debug("Unable to close server channel", e);
+            }
+        }
+    }
+
+    /**
+     * Builder of a socket server
+     */
+    public static class Builder {
+
+        @NotNull
+        private final JsonRpcServer rpcServer;
+
+        @NotNull
+        private final Object service;
+
+        private int selectors = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        private boolean reusePort;
+
+        @Nullable
+        private Executor executor;
+
+        private int maxFrameSize = Frames.DEFAULT_MAX_FRAME_SIZE;
+
+        private int backlog;
+
+        private Builder(@NotNull JsonRpcServer rpcServer, @NotNull Object service) {
+            this.rpcServer = rpcServer;
+            this.service = service;
+        }
+
+        /**
+         * Sets the amount of selector loops, half of available processors by default
+         *
+         * @param selectors amount of threads which do network I/O
+         * @return the current builder
+         */
+        @NotNull
+        public Builder selectors(int selectors) {
+            if (selectors < 1) {
+                throw new IllegalArgumentException("At least one selector is required");
+            }
+            this.selectors = selectors;
+            return this;
+        }
+
+        /**
+         * Makes every selector loop listen on the port with SO_REUSEPORT, if the platform supports it
+         *
+         * @param reusePort whether to use SO_REUSEPORT
+         * @return the current builder
+         */
+        @NotNull
+        public Builder reusePort(boolean reusePort) {
+            this.reusePort = reusePort;
+            return this;
+        }
+
+        /**
+         * Sets an executor for handling requests. By default, requests are handled by a cached thread pool
+         * which is shut down with the server. An executor which runs tasks in the calling thread
+         * handles requests in selector loops, which is fine for fast non-blocking methods.
+         *
+         * @param executor executor for handling requests
+         * @return the current builder
+         */
+        @NotNull
+        public Builder executor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the max size of a request, 16 MB by default. A connection which sends
+         * a larger request is closed.
+         *
+         * @param maxFrameSize max size of a request in bytes
+         * @return the current builder
+         */
+        @NotNull
+        public Builder maxFrameSize(int maxFrameSize) {
+            if (maxFrameSize < 1) {
+                throw new IllegalArgumentException("Max frame size should be positive");
+            }
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * Sets the max amount of pending connections, a platform default by default
+         *
+         * @param backlog max amount of pending connections
+         * @return the current builder
+         */
+        @NotNull
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Binds the server to an address and starts it
+         *
+         * @param address local address, could have port 0 to let the OS choose a port,
+         *                or a {@code UnixDomainSocketAddress} of a socket file which doesn't exist
+         * @return started server
+         * @throws IOException if the server can't be bound
+         */
+        @NotNull
+        public JsonRpcSocketServer bind(@NotNull SocketAddress address) throws IOException {
+            ExecutorService ownExecutor = null;
+            Executor executor = this.executor;
+            if (executor == null) {
+                ownExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                        .setNameFormat("json-rpc-socket-worker-%d")
+                        .setDaemon(true)
+                        .build());
+                executor = ownExecutor;
+            }
+            List<SelectorLoop> loops = new ArrayList<>(selectors);
+            try {
+                for (int i = 0; i < selectors; i++) {
+                    loops.add(new SelectorLoop("json-rpc-socket-selector-" + i));
+                }
+                ServerSocketChannel serverChannel = UnixSockets.isUnixAddress(address) ?
+                        UnixSockets.openServerChannel() : ServerSocketChannel.open();
+                SocketOption<Boolean> reusePortOption = reusePort && selectors > 1 ?
+                        findReusePort(serverChannel) : null;
+                SocketAddress localAddress = listen(serverChannel, address, reusePortOption);
+                if (reusePortOption != null) {
+                    // Every loop accepts connections by itself
+                    register(serverChannel, loops.get(0), Collections.singletonList(loops.get(0)), executor);
+                    for (int i = 1; i < selectors; i++) {
+                        ServerSocketChannel loopChannel = ServerSocketChannel.open();
+                        listen(loopChannel, localAddress, reusePortOption);
+                        register(loopChannel, loops.get(i), Collections.singletonList(loops.get(i)), executor);
+                    }
+                } else {
+                    register(serverChannel, loops.get(0), loops, executor);
+                }
+                for (SelectorLoop loop : loops) {
+                    loop.start();
+                }
+                return new JsonRpcSocketServer(loops, localAddress, ownExecutor);
+            } catch (IOException | RuntimeException e) {
+                for (SelectorLoop loop : loops) {
+                    try {
+                        loop.stop();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                if (ownExecutor != null) {
+                    ownExecutor.shutdown();
+                }
+                throw e;
+            }
+        }
+
+        @NotNull
+        private SocketAddress listen(@NotNull ServerSocketChannel serverChannel, @NotNull SocketAddress address,
+                                     @Nullable SocketOption<Boolean> reusePortOption) throws IOException {
+            try {
+                if (reusePortOption != null) {
+                    serverChannel.setOption(reusePortOption, true);
+                }
+                serverChannel.bind(address, backlog);
+                serverChannel.configureBlocking(false);
+                return serverChannel.getLocalAddress();
+            } catch (IOException e) {
+                serverChannel.close();
+                throw e;
+            }
+        }
+
+        private void register(@NotNull ServerSocketChannel serverChannel, @NotNull SelectorLoop acceptLoop,
+                              @NotNull List<SelectorLoop> loops, @NotNull Executor executor) throws IOException {
+            // The loop is not started yet, so the channel could be registered from the current thread
+            try {
+                serverChannel.register(acceptLoop.selector(), SelectionKey.OP_ACCEPT,
+                        new Acceptor(serverChannel, loops, rpcServer, service, executor, maxFrameSize));
+            } catch (IOException e) {
+                serverChannel.close();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Thread which owns a selector and handles I/O events of its channels.</p>
+ * <p>Channels are registered and their interest ops are changed only by the loop thread,
+ * other threads pass such changes as tasks.</p>
+ * <p>The loop owns a direct buffer, which is shared by all its channels for reading, so the data
+ * is read from a socket without an intermediate copy and without a buffer per connection.</p>
+ */
+class SelectorLoop implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(SelectorLoop.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Handler of ready operations of a channel, attached to its selection key
+     */
+    interface Handler {
+
+        void handle(@NotNull SelectionKey key) throws IOException;
+
+        void close();
+    }
+
+    @NotNull
+    private final Selector selector;
+
+    @NotNull
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    @NotNull
+    private final Thread thread;
+
+    @NotNull
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    private volatile boolean running = true;
+
+    SelectorLoop(@NotNull String name) throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+    }
+
+    @NotNull
+    Selector selector() {
+        return selector;
+    }
+
+    /**
+     * @return direct buffer for reading, which could be used only by the loop thread
+     * until a handler returns
+     */
+    @NotNull
+    ByteBuffer readBuffer() {
+        return readBuffer;
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Runs a task in the loop thread
+     *
+     * @param task task which works with the selector
+     */
+    void execute(@NotNull Runnable task) {
+        if (Thread.currentThread() == thread) {
+            task.run();
+        } else {
+            tasks.add(task);
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                runTasks();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Handler handler = (Handler) key.attachment();
+                    try {
+                        if (key.isValid()) {
+                            handler.handle(key);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Closing channel after an error", e);
+                        handler.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                log.error("Selector loop failed", e);
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Selector task failed", e);
+            }
+        }
+    }
+
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                ((Handler) key.attachment()).close();
+            }
+        } catch (ClosedSelectorException ignore) {
+            // Already closed
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Unable to close selector", e);
+        }
+    }
+
+    /**
+     * Stops the loop and closes all its channels
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting for the loop
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        if (thread.isAlive() && Thread.currentThread() != thread) {
+            thread.join();
+        } else if (!thread.isAlive()) {
+            closeAll();
+        }
+    }
+}
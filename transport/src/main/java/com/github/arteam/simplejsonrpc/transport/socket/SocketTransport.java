@@ -0,0 +1,316 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import com.github.arteam.simplejsonrpc.client.BinaryTransport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Transport which sends requests to a {@link JsonRpcSocketServer} over a persistent connection.</p>
+ * <p>The transport is thread-safe. Requests from different threads are pipelined over the same
+ * connection: a request is written as soon as it's passed, and a reader thread matches responses
+ * to requests by frame ids, so a slow request doesn't hold up other ones. {@link #exchangeAsync(byte[])}
+ * doesn't wait for a response, so a single thread can keep many requests in flight.</p>
+ * <p>The connection is opened on the first request and opened again after an I/O error.
+ * On Java 16 and later, the address could be a {@code UnixDomainSocketAddress} to call a server
+ * on the same host without the TCP/IP stack.</p>
+ */
+public class SocketTransport implements BinaryTransport, Closeable {
+
+    @NotNull
+    private final SocketAddress address;
+
+    @Nullable
+    private final Duration timeout;
+
+    private final int maxFrameSize;
+
+    @Nullable
+    private Pipeline pipeline;
+
+    private boolean closed;
+
+    /**
+     * Creates a transport without a response timeout
+     *
+     * @param address server address
+     */
+    public SocketTransport(@NotNull SocketAddress address) {
+        this(address, null);
+    }
+
+    /**
+     * Creates a transport
+     *
+     * @param address server address
+     * @param timeout max time to wait for a response or {@code null} to wait without a limit
+     */
+    public SocketTransport(@NotNull SocketAddress address, @Nullable Duration timeout) {
+        this(address, timeout, Frames.DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Creates a transport
+     *
+     * @param address      server address
+     * @param timeout      max time to wait for a response or {@code null} to wait without a limit
+     * @param maxFrameSize max size of a response in bytes
+     */
+    public SocketTransport(@NotNull SocketAddress address, @Nullable Duration timeout, int maxFrameSize) {
+        this.address = address;
+        this.timeout = timeout;
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Sends a request and waits for a response
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return JSON-RPC response in UTF-8, empty if the request doesn't have a response
+     * @throws IOException if an I/O error happens or the response times out
+     */
+    @NotNull
+    @Override
+    public byte[] exchange(@NotNull byte[] request) throws IOException {
+        CompletableFuture<byte[]> response = pipeline().send(request);
+        try {
+            return timeout == null ? response.get() : response.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            response.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        } catch (TimeoutException e) {
+            response.cancel(false);
+            throw new SocketTimeoutException("No response from " + address + " in " + timeout);
+        } catch (ExecutionException e) {
+            throw new IOException("Connection to " + address + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * Sends a request without waiting for a response
+     *
+     * @param request JSON-RPC request in UTF-8
+     * @return future JSON-RPC response in UTF-8, which fails with an {@link IOException}
+     * if an I/O error happens or the response times out
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<byte[]> exchangeAsync(@NotNull byte[] request) {
+        CompletableFuture<byte[]> response;
+        try {
+            response = pipeline().send(request);
+        } catch (IOException e) {
+            CompletableFuture<byte[]> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        if (timeout != null) {
+            ScheduledFuture<?> timer = Timer.SCHEDULER.schedule(() -> response.completeExceptionally(
+                    new SocketTimeoutException("No response from " + address + " in " + timeout)),
+                    timeout.toNanos(), TimeUnit.NANOSECONDS);
+            response.whenComplete((result, e) -> timer.cancel(false));
+        }
+        return response;
+    }
+
+    @NotNull
+    private synchronized Pipeline pipeline() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (pipeline == null || pipeline.isBroken()) {
+            pipeline = new Pipeline(SocketChannel.open(address), maxFrameSize);
+        }
+        return pipeline;
+    }
+
+    /**
+     * @return amount of requests, which wait for responses
+     */
+    synchronized int pendingRequests() {
+        return pipeline != null ? pipeline.pending.size() : 0;
+    }
+
+    /**
+     * Closes the connection and fails all requests which wait for responses
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (pipeline != null) {
+            pipeline.fail(new ClosedChannelException());
+        }
+    }
+
+    /**
+     * Scheduler of response timeouts for async requests, which is started on the first use
+     */
+    private static class Timer {
+
+        private static final ScheduledExecutorService SCHEDULER = newScheduler();
+
+        @NotNull
+        private static ScheduledExecutorService newScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "json-rpc-socket-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Most requests get responses in time, so don't keep their cancelled timeouts in the queue
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    /**
+     * Connection with requests which wait for responses. Frames are copied through direct buffers
+     * of the connection, so the JDK doesn't allocate temporary direct buffers for socket I/O.
+     */
+    private static class Pipeline implements Runnable {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        @NotNull
+        private final SocketChannel channel;
+
+        private final int maxFrameSize;
+
+        @NotNull
+        private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+
+        @NotNull
+        private final AtomicInteger frameIds = new AtomicInteger();
+
+        @NotNull
+        private final Object writeLock = new Object();
+
+        /**
+         * Direct buffer for writing requests, guarded by {@link #writeLock}
+         */
+        @NotNull
+        private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        @Nullable
+        private volatile IOException failure;
+
+        private Pipeline(@NotNull SocketChannel channel, int maxFrameSize) throws IOException {
+            this.channel = channel;
+            this.maxFrameSize = maxFrameSize;
+            try {
+                if (channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            Thread reader = new Thread(this, "json-rpc-socket-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private boolean isBroken() {
+            return failure != null;
+        }
+
+        @NotNull
+        private CompletableFuture<byte[]> send(@NotNull byte[] request) throws IOException {
+            int id = frameIds.incrementAndGet();
+            CompletableFuture<byte[]> response = new CompletableFuture<>();
+            pending.put(id, response);
+            // A request, which is cancelled after a timeout or an interrupt, doesn't wait for a response anymore
+            response.whenComplete((result, e) -> pending.remove(id, response));
+            // Don't leave the request behind if the connection has just failed
+            IOException failure = this.failure;
+            if (failure != null) {
+                pending.remove(id);
+                throw failure;
+            }
+            synchronized (writeLock) {
+                try {
+                    writeBuffer.clear();
+                    writeBuffer.putInt(request.length).putInt(id);
+                    int written = 0;
+                    do {
+                        int chunk = Math.min(writeBuffer.remaining(), request.length - written);
+                        writeBuffer.put(request, written, chunk);
+                        written += chunk;
+                        writeBuffer.flip();
+                        Frames.writeFully(channel, writeBuffer);
+                        writeBuffer.clear();
+                    } while (written < request.length);
+                } catch (IOException e) {
+                    fail(e);
+                    throw e;
+                }
+            }
+            return response;
+        }
+
+        @Override
+        public void run() {
+            ByteBuffer input = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            input.flip();
+            try {
+                while (true) {
+                    Frames.fill(channel, input, Frames.HEADER_SIZE);
+                    int length = input.getInt();
+                    int id = input.getInt();
+                    Frames.checkLength(length, maxFrameSize);
+                    byte[] payload = new byte[length];
+                    int read = 0;
+                    while (read < length) {
+                        Frames.fill(channel, input, 1);
+                        int chunk = Math.min(input.remaining(), length - read);
+                        input.get(payload, read, chunk);
+                        read += chunk;
+                    }
+                    CompletableFuture<byte[]> response = pending.remove(id);
+                    if (response != null) {
+                        response.complete(payload);
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(@NotNull IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+                // Already failed
+            }
+            for (Integer id : pending.keySet()) {
+                CompletableFuture<byte[]> response = pending.remove(id);
+                if (response != null) {
+                    response.completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Path;
+
+/**
+ * <p>Unix domain sockets, which are available since Java 16.</p>
+ * <p>The API is accessed reflectively, so the module still runs on Java 8. On Java 16 and later
+ * {@code UnixDomainSocketAddress} could be passed to the socket server and the transport as any
+ * other address. Client sockets don't need any special handling, because {@code SocketChannel.open}
+ * picks the protocol family from the address.</p>
+ */
+class UnixSockets {
+
+    private static final String ADDRESS_CLASS = "java.net.UnixDomainSocketAddress";
+
+    @Nullable
+    private static final Class<?> addressClass = findAddressClass();
+
+    private UnixSockets() {
+    }
+
+    @Nullable
+    private static Class<?> findAddressClass() {
+        try {
+            return Class.forName(ADDRESS_CLASS);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether Unix domain sockets are supported by the current JVM
+     */
+    static boolean isSupported() {
+        return addressClass != null;
+    }
+
+    /**
+     * @param address socket address
+     * @return whether the address is a Unix domain socket address
+     */
+    static boolean isUnixAddress(@NotNull SocketAddress address) {
+        return addressClass != null && addressClass.isInstance(address);
+    }
+
+    /**
+     * Creates an address of a socket file
+     *
+     * @param path path to the socket file
+     * @return Unix domain socket address
+     * @throws UnsupportedOperationException if Unix domain sockets are not supported
+     */
+    @NotNull
+    static SocketAddress address(@NotNull Path path) {
+        return (SocketAddress) invoke(requireAddressClass(), "of", Path.class, null, path);
+    }
+
+    /**
+     * Gets the socket file of an address
+     *
+     * @param address Unix domain socket address
+     * @return path to the socket file
+     */
+    @NotNull
+    static Path path(@NotNull SocketAddress address) {
+        return (Path) invoke(requireAddressClass(), "getPath", null, address, null);
+    }
+
+    /**
+     * Opens a server channel for Unix domain sockets
+     *
+     * @return new server channel
+     * @throws IOException if the channel can't be opened
+     */
+    @NotNull
+    static ServerSocketChannel openServerChannel() throws IOException {
+        requireAddressClass();
+        ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+        try {
+            return (ServerSocketChannel) ServerSocketChannel.class.getMethod("open", ProtocolFamily.class)
+                    .invoke(null, unix);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NotNull
+    private static Class<?> requireAddressClass() {
+        if (addressClass == null) {
+            throw new UnsupportedOperationException("Unix domain sockets require Java 16 or later");
+        }
+        return addressClass;
+    }
+
+    private static Object invoke(@NotNull Class<?> clazz, @NotNull String name, @Nullable Class<?> paramType,
+                                 @Nullable Object target, @Nullable Object arg) {
+        try {
+            if (paramType == null) {
+                return clazz.getMethod(name).invoke(target);
+            }
+            Method method = clazz.getMethod(name, paramType);
+            return method.invoke(target, arg);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.arteam.simplejsonrpc.transport.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the HTTP endpoint
+ */
+public class JsonRpcHttpServerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CounterService counterService = new CounterService();
+    private JsonRpcHttpServer server;
+    private URL url;
+
+    @JsonRpcService
+    public static class CounterService {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @JsonRpcMethod
+        public int add(@JsonRpcParam("delta") int delta) {
+            return counter.addAndGet(delta);
+        }
+
+        @JsonRpcMethod
+        public long sum(@JsonRpcParam("values") Iterator<Long> values) {
+            long sum = 0;
+            while (values.hasNext()) {
+                sum += values.next();
+            }
+            return sum;
+        }
+
+        @JsonRpcMethod
+        public Stream<String> rows(@JsonRpcParam("count") int count) {
+            return IntStream.range(0, count).mapToObj(i -> "row-" + i);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = JsonRpcHttpServer.builder(new JsonRpcServer(), counterService)
+                .path("/rpc")
+                .maxRequestSize(1024)
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        url = new URL("http://localhost:" + server.getLocalAddress().getPort() + "/rpc");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testRequest() throws IOException {
+        HttpURLConnection connection = post("{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"params\":{\"delta\":2},\"id\":1}");
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getContentType()).isEqualTo("application/json; charset=utf-8");
+        assertThat(connection.getHeaderField("Transfer-Encoding")).isNull();
+        assertThat(connection.getContentLengthLong()).isEqualTo(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":2}".length());
+        assertThat(readJson(connection)).isEqualTo(mapper.readTree("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":2}"));
+    }
+
+    @Test
+    public void testNotification() throws IOException {
+        HttpURLConnection connection = post("{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"params\":{\"delta\":3}}");
+        assertThat(connection.getResponseCode()).isEqualTo(204);
+        assertThat(counterService.counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testBatchOfNotifications() throws IOException {
+        HttpURLConnection connection = post("[{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"params\":{\"delta\":3}}," +
+                "{\"jsonrpc\":\"2.0\",\"method\":\"add\",\"params\":{\"delta\":4}}]");
+        assertThat(connection.getResponseCode()).isEqualTo(204);
+        assertThat(counterService.counter.get()).isEqualTo(7);
+    }
+
+    @Test
+    public void testJsonRpcError() throws IOException {
+        HttpURLConnection connection = post("{\"jsonrpc\":\"2.0\",\"method\":\"subtract\",\"id\":1}");
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(readJson(connection).get("error").get("code").asInt()).isEqualTo(-32601);
+    }
+
+    @Test
+    public void testStreamedResponse() throws IOException {
+        HttpURLConnection connection = post("{\"jsonrpc\":\"2.0\",\"method\":\"rows\",\"params\":{\"count\":100000},\"id\":1}");
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField("Transfer-Encoding")).isEqualTo("chunked");
+        JsonNode result = readJson(connection).get("result");
+        assertThat(result.size()).isEqualTo(100000);
+        assertThat(result.get(99999).asText()).isEqualTo("row-99999");
+    }
+
+    @Test
+    public void testStreamedParam() throws IOException {
+        HttpURLConnection connection = post("{\"jsonrpc\":\"2.0\",\"method\":\"sum\"," +
+                "\"params\":{\"values\":[1,2,3,4]},\"id\":1}");
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(readJson(connection).get("result").asLong()).isEqualTo(10);
+    }
+
+    @Test
+    public void testChunkedRequest() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(16);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write("{\"jsonrpc\":\"2.0\",\"method\":\"sum\",\"params\":{\"values\":[5,6]},\"id\":1}"
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(readJson(connection).get("result").asLong()).isEqualTo(11);
+    }
+
+    @Test
+    public void testTooLargeRequest() throws IOException {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            padding.append(' ');
+        }
+        HttpURLConnection connection = post("{\"jsonrpc\":\"2.0\",\"method\":\"add\"," + padding +
+                "\"params\":{\"delta\":2},\"id\":1}");
+        assertThat(connection.getResponseCode()).isEqualTo(413);
+        assertThat(counterService.counter.get()).isZero();
+    }
+
+    @Test
+    public void testTooLargeChunkedRequest() throws IOException {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            padding.append(' ');
+        }
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(256);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(("{\"jsonrpc\":\"2.0\",\"method\":\"add\"," + padding + "\"params\":{\"delta\":2},\"id\":1}")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(connection.getResponseCode()).isEqualTo(413);
+        assertThat(counterService.counter.get()).isZero();
+    }
+
+    @Test
+    public void testWrongMethod() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(405);
+        assertThat(connection.getHeaderField("Allow")).isEqualTo("POST");
+    }
+
+    private HttpURLConnection post(String request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(request.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private JsonNode readJson(HttpURLConnection connection) throws IOException {
+        try (InputStream input = connection.getInputStream()) {
+            return mapper.readTree(ByteStreams.toByteArray(input));
+        }
+    }
+}
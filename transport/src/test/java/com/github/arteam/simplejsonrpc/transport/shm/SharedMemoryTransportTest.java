@@ -0,0 +1,205 @@
+package com.github.arteam.simplejsonrpc.transport.shm;
+
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the shared memory transport
+ */
+public class SharedMemoryTransportTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private Path path;
+    private final CounterService counterService = new CounterService();
+    private SharedMemoryServer server;
+    private SharedMemoryTransport transport;
+    private JsonRpcClient client;
+
+    @JsonRpcService
+    public static class CounterService {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @JsonRpcMethod
+        public int add(@JsonRpcParam("delta") int delta) {
+            return counter.addAndGet(delta);
+        }
+
+        @JsonRpcMethod
+        public void reset() {
+            counter.set(0);
+        }
+
+        @JsonRpcMethod
+        public String echo(@JsonRpcParam("value") String value) {
+            return value;
+        }
+
+        @JsonRpcMethod
+        public String repeat(@JsonRpcParam("value") String value, @JsonRpcParam("times") int times) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < times; i++) {
+                builder.append(value);
+            }
+            return builder.toString();
+        }
+
+        @JsonRpcMethod
+        public int sleep(@JsonRpcParam("millis") long millis) throws InterruptedException {
+            Thread.sleep(millis);
+            return counter.get();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        path = tempDir.resolve("json-rpc.shm");
+        server = SharedMemoryServer.start(path, CAPACITY, new JsonRpcServer(), counterService);
+        transport = new SharedMemoryTransport(path, Duration.ofSeconds(10));
+        client = new JsonRpcClient(transport);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        transport.close();
+        server.close();
+    }
+
+    @Test
+    public void testRequests() {
+        // Enough requests to wrap around the rings a few times
+        for (int i = 1; i <= 10_000; i++) {
+            int value = client.createRequest()
+                    .method("add")
+                    .id(i)
+                    .param("delta", 1)
+                    .returnAs(int.class)
+                    .execute();
+            assertThat(value).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testNotification() {
+        client.createNotification()
+                .method("add")
+                .param("delta", 5)
+                .execute();
+        assertThat(counterService.counter.get()).isEqualTo(5);
+    }
+
+    @Test
+    public void testLargeMessage() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < CAPACITY / 2; i++) {
+            builder.append(i % 10);
+        }
+        for (int i = 0; i < 10; i++) {
+            String value = client.createRequest()
+                    .method("echo")
+                    .id(i)
+                    .param("value", builder.toString())
+                    .returnAs(String.class)
+                    .execute();
+            assertThat(value).isEqualTo(builder.toString());
+        }
+    }
+
+    @Test
+    public void testTooLargeRequest() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < CAPACITY; i++) {
+            builder.append(i % 10);
+        }
+        assertThatThrownBy(() -> transport.pass(builder.toString()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("doesn't fit");
+    }
+
+    @Test
+    public void testTooLargeResponseIsInternalError() {
+        assertThatThrownBy(() -> client.createRequest()
+                .method("repeat")
+                .id(1)
+                .param("value", "0123456789")
+                .param("times", CAPACITY)
+                .returnAs(String.class)
+                .execute())
+                .isInstanceOf(JsonRpcException.class)
+                .hasMessageContaining("Internal error");
+        assertThat(client.createRequest()
+                .method("echo")
+                .id(2)
+                .param("value", "Hello")
+                .returnAs(String.class)
+                .execute()).isEqualTo("Hello");
+    }
+
+    @Test
+    public void testServerFailureIsInternalError() throws Exception {
+        JsonRpcServer failingServer = new JsonRpcServer() {
+            @Override
+            public byte[] handle(byte[] request, Object service) {
+                throw new IllegalStateException("Broken");
+            }
+        };
+        Path brokenPath = tempDir.resolve("broken.shm");
+        try (SharedMemoryServer brokenServer = SharedMemoryServer.start(brokenPath, CAPACITY, failingServer,
+                counterService);
+             SharedMemoryTransport brokenTransport = new SharedMemoryTransport(brokenPath, Duration.ofSeconds(10))) {
+            assertThatThrownBy(() -> new JsonRpcClient(brokenTransport).createRequest()
+                    .method("echo")
+                    .id(1)
+                    .param("value", "Hello")
+                    .returnAs(String.class)
+                    .execute())
+                    .isInstanceOf(JsonRpcException.class)
+                    .hasMessageContaining("Internal error");
+        }
+    }
+
+    @Test
+    public void testLateResponseIsSkipped() throws Exception {
+        try (SharedMemoryTransport shortTransport = new SharedMemoryTransport(path, Duration.ofMillis(50))) {
+            assertThatThrownBy(() -> shortTransport.pass(
+                    "{\"jsonrpc\":\"2.0\",\"method\":\"sleep\",\"params\":{\"millis\":200},\"id\":1}"))
+                    .isInstanceOf(SocketTimeoutException.class);
+        }
+        int value = client.createRequest()
+                .method("add")
+                .id(2)
+                .param("delta", 3)
+                .returnAs(int.class)
+                .execute();
+        assertThat(value).isEqualTo(3);
+    }
+
+    @Test
+    public void testFileIsDeleted() throws Exception {
+        assertThat(path).exists();
+        server.close();
+        assertThat(path).doesNotExist();
+        server = SharedMemoryServer.start(path, CAPACITY, new JsonRpcServer(), counterService);
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.client.exception.JsonRpcException;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcMethod;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcParam;
+import com.github.arteam.simplejsonrpc.core.annotation.JsonRpcService;
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the socket transport over loopback
+ */
+public class SocketTransportTest {
+
+    private final EchoService echoService = new EchoService();
+    private JsonRpcSocketServer server;
+    private SocketTransport transport;
+    private JsonRpcClient client;
+
+    @JsonRpcService
+    public static class EchoService {
+
+        private final AtomicInteger notifications = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @JsonRpcMethod
+        public String echo(@JsonRpcParam("value") String value) {
+            return value;
+        }
+
+        @JsonRpcMethod
+        public String await(@JsonRpcParam("value") String value) throws InterruptedException {
+            release.await(10, TimeUnit.SECONDS);
+            return value;
+        }
+
+        @JsonRpcMethod
+        public void release() {
+            release.countDown();
+        }
+
+        @JsonRpcMethod
+        public void notify(@JsonRpcParam("value") String value) {
+            notifications.incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = JsonRpcSocketServer.builder(new JsonRpcServer(), echoService)
+                .selectors(2)
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        transport = new SocketTransport(server.getLocalAddress(), Duration.ofSeconds(10));
+        client = new JsonRpcClient(transport);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        transport.close();
+        server.close();
+    }
+
+    @Test
+    public void testRequest() {
+        String value = client.createRequest()
+                .method("echo")
+                .id(1)
+                .param("value", "Hello")
+                .returnAs(String.class)
+                .execute();
+        assertThat(value).isEqualTo("Hello");
+    }
+
+    @Test
+    public void testLargeRequest() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            builder.append(i % 10);
+        }
+        String value = client.createRequest()
+                .method("echo")
+                .id(1)
+                .param("value", builder.toString())
+                .returnAs(String.class)
+                .execute();
+        assertThat(value).isEqualTo(builder.toString());
+    }
+
+    @Test
+    public void testNotification() throws Exception {
+        client.createNotification()
+                .method("notify")
+                .param("value", "Hello")
+                .execute();
+        assertThat(echoService.notifications.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // A request which waits doesn't hold up the requests which are sent after it
+            Future<String> awaiting = executor.submit(() -> client.createRequest()
+                    .method("await")
+                    .id(0)
+                    .param("value", "last")
+                    .returnAs(String.class)
+                    .execute());
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                int id = i;
+                responses.add(executor.submit(() -> client.createRequest()
+                        .method("echo")
+                        .id(id)
+                        .param("value", "value-" + id)
+                        .returnAs(String.class)
+                        .execute()));
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                assertThat(responses.get(i).get(10, TimeUnit.SECONDS)).isEqualTo("value-" + (i + 1));
+            }
+            assertThat(awaiting.isDone()).isFalse();
+
+            client.createNotification().method("release").execute();
+            assertThat(awaiting.get(10, TimeUnit.SECONDS)).isEqualTo("last");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAsyncRequestsFromSingleThread() throws Exception {
+        CompletableFuture<String> awaiting = client.createRequest()
+                .method("await")
+                .id(0)
+                .param("value", "last")
+                .returnAs(String.class)
+                .executeAsync();
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            responses.add(client.createRequest()
+                    .method("echo")
+                    .id(i)
+                    .param("value", "value-" + i)
+                    .returnAs(String.class)
+                    .executeAsync());
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            assertThat(responses.get(i).get(10, TimeUnit.SECONDS)).isEqualTo("value-" + (i + 1));
+        }
+        assertThat(awaiting.isDone()).isFalse();
+
+        client.createNotification().method("release").execute();
+        assertThat(awaiting.get(10, TimeUnit.SECONDS)).isEqualTo("last");
+        assertThat(transport.pendingRequests()).isZero();
+    }
+
+    @Test
+    public void testAsyncTimeout() throws Exception {
+        try (SocketTransport shortTransport = new SocketTransport(server.getLocalAddress(), Duration.ofMillis(100))) {
+            CompletableFuture<byte[]> response = shortTransport.exchangeAsync(
+                    "{\"jsonrpc\":\"2.0\",\"method\":\"await\",\"params\":{\"value\":\"late\"},\"id\":1}"
+                            .getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> response.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(SocketTimeoutException.class);
+            assertThat(shortTransport.pendingRequests()).isZero();
+        }
+        echoService.release();
+    }
+
+    @Test
+    public void testReusePort() throws Exception {
+        try (JsonRpcSocketServer reusePortServer = JsonRpcSocketServer.builder(new JsonRpcServer(), echoService)
+                .selectors(2)
+                .reusePort(true)
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            for (int i = 0; i < 4; i++) {
+                try (SocketTransport reusePortTransport = new SocketTransport(reusePortServer.getLocalAddress())) {
+                    String value = new JsonRpcClient(reusePortTransport).createRequest()
+                            .method("echo")
+                            .id(i)
+                            .param("value", "value-" + i)
+                            .returnAs(String.class)
+                            .execute();
+                    assertThat(value).isEqualTo("value-" + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        try (SocketTransport shortTransport = new SocketTransport(server.getLocalAddress(), Duration.ofMillis(100))) {
+            assertThatThrownBy(() -> shortTransport.pass(
+                    "{\"jsonrpc\":\"2.0\",\"method\":\"await\",\"params\":{\"value\":\"late\"},\"id\":1}"))
+                    .isInstanceOf(SocketTimeoutException.class);
+            assertThat(shortTransport.pendingRequests()).isZero();
+        }
+        echoService.release();
+    }
+
+    @Test
+    public void testServerFailureIsInternalError() throws Exception {
+        JsonRpcServer failingServer = new JsonRpcServer() {
+            @Override
+            public byte[] handle(byte[] request, Object service) {
+                throw new IllegalStateException("Broken");
+            }
+        };
+        try (JsonRpcSocketServer brokenServer = JsonRpcSocketServer.builder(failingServer, echoService)
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             SocketTransport brokenTransport = new SocketTransport(brokenServer.getLocalAddress())) {
+            assertThatThrownBy(() -> new JsonRpcClient(brokenTransport).createRequest()
+                    .method("echo")
+                    .id(1)
+                    .param("value", "Hello")
+                    .returnAs(String.class)
+                    .execute())
+                    .isInstanceOf(JsonRpcException.class)
+                    .hasMessageContaining("Internal error");
+            assertThat(brokenTransport.pendingRequests()).isZero();
+        }
+    }
+
+    @Test
+    public void testServerErrorIsInternalError() throws Exception {
+        JsonRpcServer failingServer = new JsonRpcServer() {
+            @Override
+            public byte[] handle(byte[] request, Object service) {
+                throw new StackOverflowError();
+            }
+        };
+        try (JsonRpcSocketServer brokenServer = JsonRpcSocketServer.builder(failingServer, echoService)
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             SocketTransport brokenTransport = new SocketTransport(brokenServer.getLocalAddress())) {
+            JsonRpcClient brokenClient = new JsonRpcClient(brokenTransport);
+            for (int i = 0; i < 2; i++) {
+                int id = i;
+                assertThatThrownBy(() -> brokenClient.createRequest()
+                        .method("echo")
+                        .id(id)
+                        .param("value", "Hello")
+                        .returnAs(String.class)
+                        .execute())
+                        .isInstanceOf(JsonRpcException.class)
+                        .hasMessageContaining("Internal error");
+            }
+        }
+    }
+
+    @Test
+    public void testReconnectAfterServerRestart() throws Exception {
+        InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+        assertThat(transport.pass("{\"jsonrpc\":\"2.0\",\"method\":\"echo\",\"params\":[\"1\"],\"id\":1}"))
+                .contains("\"result\":\"1\"");
+        server.close();
+        assertThatThrownBy(() -> transport.pass("{\"jsonrpc\":\"2.0\",\"method\":\"echo\",\"params\":[\"2\"],\"id\":2}"))
+                .isInstanceOf(IOException.class);
+
+        server = JsonRpcSocketServer.builder(new JsonRpcServer(), echoService).bind(address);
+        assertThat(transport.pass("{\"jsonrpc\":\"2.0\",\"method\":\"echo\",\"params\":[\"3\"],\"id\":3}"))
+                .contains("\"result\":\"3\"");
+    }
+}
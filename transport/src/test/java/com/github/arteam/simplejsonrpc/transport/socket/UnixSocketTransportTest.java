@@ -0,0 +1,58 @@
+package com.github.arteam.simplejsonrpc.transport.socket;
+
+import com.github.arteam.simplejsonrpc.client.JsonRpcClient;
+import com.github.arteam.simplejsonrpc.server.JsonRpcServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.SocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the socket transport over a Unix domain socket
+ */
+@EnabledForJreRange(min = JRE.JAVA_16)
+public class UnixSocketTransportTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRequests() throws Exception {
+        Path socketFile = tempDir.resolve("json-rpc.sock");
+        SocketAddress address = UnixSockets.address(socketFile);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (JsonRpcSocketServer server = JsonRpcSocketServer.builder(new JsonRpcServer(),
+                new SocketTransportTest.EchoService()).bind(address);
+             SocketTransport transport = new SocketTransport(server.getLocalAddress())) {
+            JsonRpcClient client = new JsonRpcClient(transport);
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int id = i;
+                responses.add(executor.submit(() -> client.createRequest()
+                        .method("echo")
+                        .id(id)
+                        .param("value", "value-" + id)
+                        .returnAs(String.class)
+                        .execute()));
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                assertThat(responses.get(i).get(10, TimeUnit.SECONDS)).isEqualTo("value-" + i);
+            }
+            assertThat(socketFile).exists();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(socketFile).doesNotExist();
+    }
+}